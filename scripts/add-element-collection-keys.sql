@@ -0,0 +1,30 @@
+-- Stable keys for product / variant attributes and images
+-- Run this script manually in your PostgreSQL database
+--
+-- Attributes are keyed by name and images by URL: Hibernate now updates and deletes single rows
+-- by (owner id, key) instead of rewriting whole collections. Duplicates left by the previous
+-- mapping are removed first (the most recently inserted row wins).
+
+DELETE FROM product_attributes a USING product_attributes b
+WHERE a.product_id = b.product_id AND a.attribute_name = b.attribute_name AND a.ctid < b.ctid;
+
+DELETE FROM product_images a USING product_images b
+WHERE a.product_id = b.product_id AND a.url = b.url AND a.ctid < b.ctid;
+
+DELETE FROM product_variant_attributes a USING product_variant_attributes b
+WHERE a.variant_id = b.variant_id AND a.attribute_name = b.attribute_name AND a.ctid < b.ctid;
+
+DELETE FROM product_variant_images a USING product_variant_images b
+WHERE a.variant_id = b.variant_id AND a.url = b.url AND a.ctid < b.ctid;
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_product_attributes_product_name
+    ON product_attributes (product_id, attribute_name);
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_product_images_product_url
+    ON product_images (product_id, url);
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_product_variant_attributes_variant_name
+    ON product_variant_attributes (variant_id, attribute_name);
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_product_variant_images_variant_url
+    ON product_variant_images (variant_id, url);
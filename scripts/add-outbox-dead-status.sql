@@ -0,0 +1,28 @@
+-- Introduce the DEAD status for outbox_events (retries exhausted)
+-- Run this script manually in your PostgreSQL database
+
+-- Move exhausted FAILED events to DEAD (adjust 3 to outbox.max-retries if overridden)
+DO $$
+DECLARE
+    moved INTEGER;
+BEGIN
+    UPDATE outbox_events
+    SET status = 'DEAD', next_attempt_at = NULL
+    WHERE status = 'FAILED' AND retry_count >= 3;
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    RAISE NOTICE 'Moved % exhausted events to DEAD', moved;
+END $$;
+
+-- The relay index only covers claimable events: DEAD and PUBLISHED rows no longer bloat it
+DROP INDEX CONCURRENTLY IF EXISTS idx_outbox_events_status_next_attempt;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_status_next_attempt
+    ON outbox_events (status, next_attempt_at)
+    WHERE status IN ('PENDING', 'FAILED');
+
+-- Admin lookups on dead events
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_dead_topic
+    ON outbox_events (topic, event_type, created_at)
+    WHERE status = 'DEAD';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_dead_aggregate
+    ON outbox_events (aggregate_id)
+    WHERE status = 'DEAD';
@@ -0,0 +1,25 @@
+-- Add next_attempt_at to outbox_events (per-event exponential backoff)
+-- Run this script manually in your PostgreSQL database
+
+-- Add next_attempt_at column if it doesn't exist
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_name = 'outbox_events'
+        AND column_name = 'next_attempt_at'
+    ) THEN
+        ALTER TABLE outbox_events ADD COLUMN next_attempt_at TIMESTAMP WITH TIME ZONE;
+        -- Existing pending/failed events become due immediately
+        UPDATE outbox_events SET next_attempt_at = created_at
+        WHERE next_attempt_at IS NULL AND status IN ('PENDING', 'FAILED');
+        RAISE NOTICE 'Added next_attempt_at column to outbox_events';
+    ELSE
+        RAISE NOTICE 'next_attempt_at column already exists in outbox_events';
+    END IF;
+END $$;
+
+-- Index used by the relay to claim due events
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_status_next_attempt
+    ON outbox_events (status, next_attempt_at);
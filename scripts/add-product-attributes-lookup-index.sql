@@ -0,0 +1,10 @@
+-- Index for the related-products and attribute lookups on product_attributes
+-- Run this script manually in your PostgreSQL database
+
+-- (name, value) -> product_id : the related-products self join is resolved from the index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_attributes_name_value_product
+    ON product_attributes (attribute_name, attribute_value, product_id);
+
+-- Attributes of the source product
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_attributes_product_id
+    ON product_attributes (product_id);
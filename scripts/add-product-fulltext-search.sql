@@ -0,0 +1,91 @@
+-- Database full-text search for products (used when elasticsearch.enabled=false)
+-- Run this script manually in your PostgreSQL database
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+-- Name (A), description (B) and attribute values (C). A generated column cannot read
+-- product_attributes, so the vector is maintained by the triggers below.
+CREATE OR REPLACE FUNCTION product_search_vector(p_id UUID, p_name TEXT, p_description TEXT)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(p_description, '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(
+               (SELECT string_agg(attribute_value, ' ') FROM product_attributes WHERE product_id = p_id), '')), 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION products_search_vector_trigger()
+RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := product_search_vector(NEW.id, NEW.name, NEW.description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_products_search_vector ON products;
+CREATE TRIGGER trg_products_search_vector
+    BEFORE INSERT OR UPDATE OF name, description ON products
+    FOR EACH ROW EXECUTE FUNCTION products_search_vector_trigger();
+
+-- Statement-level: a bulk write on product_attributes recomputes each affected product once,
+-- from the transition tables, instead of one products UPDATE per attribute row.
+CREATE OR REPLACE FUNCTION product_attributes_search_vector_trigger()
+RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE products
+           SET search_vector = product_search_vector(id, name, description)
+         WHERE id IN (SELECT DISTINCT product_id FROM new_rows);
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE products
+           SET search_vector = product_search_vector(id, name, description)
+         WHERE id IN (SELECT DISTINCT product_id FROM old_rows);
+    ELSE
+        UPDATE products
+           SET search_vector = product_search_vector(id, name, description)
+         WHERE id IN (SELECT product_id FROM new_rows UNION SELECT product_id FROM old_rows);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables allow a single event per trigger, hence one trigger per operation
+DROP TRIGGER IF EXISTS trg_product_attributes_search_vector ON product_attributes;
+DROP TRIGGER IF EXISTS trg_product_attributes_search_vector_ins ON product_attributes;
+DROP TRIGGER IF EXISTS trg_product_attributes_search_vector_upd ON product_attributes;
+DROP TRIGGER IF EXISTS trg_product_attributes_search_vector_del ON product_attributes;
+
+CREATE TRIGGER trg_product_attributes_search_vector_ins
+    AFTER INSERT ON product_attributes
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_attributes_search_vector_trigger();
+
+CREATE TRIGGER trg_product_attributes_search_vector_upd
+    AFTER UPDATE ON product_attributes
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_attributes_search_vector_trigger();
+
+CREATE TRIGGER trg_product_attributes_search_vector_del
+    AFTER DELETE ON product_attributes
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_attributes_search_vector_trigger();
+
+-- Backfill existing rows
+UPDATE products SET search_vector = product_search_vector(id, name, description);
+
+DO $$
+BEGIN
+    RAISE NOTICE 'products.search_vector backfilled';
+END $$;
+
+-- Full-text and trigram indexes (CONCURRENTLY: run outside a transaction)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_search_vector
+    ON products USING gin (search_vector);
+
+-- Typo tolerance on names, and the existing LIKE '%...%' lookups
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_name_trgm
+    ON products USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_attributes_value_trgm
+    ON product_attributes USING gin (attribute_value gin_trgm_ops);
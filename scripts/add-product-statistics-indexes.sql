@@ -0,0 +1,14 @@
+-- Indexes for the aggregate product statistics (COUNT / GROUP BY)
+-- Run this script manually in your PostgreSQL database
+
+-- Products per category: index-only scan instead of reading the products heap
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_category_id
+    ON products (category_id);
+
+-- Variants and distinct products per stock status
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_variants_stock_status_product
+    ON product_variants (stock_status, product_id);
+
+-- Products per collection
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_collections_collection_id
+    ON product_collections (collection_id);
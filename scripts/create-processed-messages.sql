@@ -0,0 +1,11 @@
+-- Create processed_messages (idempotent Kafka consumers)
+-- Run this script manually in your PostgreSQL database
+
+CREATE TABLE IF NOT EXISTS processed_messages (
+    message_key  VARCHAR(255) PRIMARY KEY,
+    processed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Used by the TTL cleanup job
+CREATE INDEX IF NOT EXISTS idx_processed_messages_processed_at
+    ON processed_messages (processed_at);
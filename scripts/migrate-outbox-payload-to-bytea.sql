@@ -0,0 +1,26 @@
+-- Convert outbox_events.payload from TEXT to BYTEA (binary, schema-versioned payloads)
+-- Run this script manually in your PostgreSQL database before deploying the new codec
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_name = 'outbox_events'
+        AND column_name = 'payload'
+        AND data_type = 'text'
+    ) THEN
+        -- Existing rows keep their JSON/text content as raw UTF-8 bytes;
+        -- payloads without header are decoded as JSON by the application
+        ALTER TABLE outbox_events ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+        RAISE NOTICE 'Converted outbox_events.payload to BYTEA';
+    ELSE
+        RAISE NOTICE 'outbox_events.payload is already BYTEA';
+    END IF;
+END $$;
+
+-- Verify the column type
+SELECT column_name, data_type
+FROM information_schema.columns
+WHERE table_name = 'outbox_events'
+AND column_name = 'payload';
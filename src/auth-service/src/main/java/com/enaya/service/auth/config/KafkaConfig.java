@@ -1,5 +1,8 @@
 package com.enaya.service.auth.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -11,16 +14,22 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
 //@Profile("!local")
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+    private final KafkaProducerProperties producerProperties;
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
@@ -63,15 +72,42 @@ public class KafkaConfig {
 
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return createProducerFactory(KafkaProducerProfile.LATENCY);
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> throughputProducerFactory() {
+        return createProducerFactory(KafkaProducerProfile.THROUGHPUT);
     }
 
     @Bean
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
-} 
\ No newline at end of file
+
+    @Bean
+    public KafkaTemplate<String, Object> throughputKafkaTemplate() {
+        return new KafkaTemplate<>(throughputProducerFactory());
+    }
+
+    private ProducerFactory<String, Object> createProducerFactory(KafkaProducerProfile profile) {
+        KafkaProducerProperties.Profile settings = producerProperties.get(profile);
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, settings.getLingerMs());
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, settings.getBatchSize());
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, settings.getCompressionType());
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, settings.getDeliveryTimeoutMs());
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "auth-service-" + profile.name().toLowerCase());
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(Tag.of("profile", profile.name().toLowerCase()))));
+        return factory;
+    }
+}
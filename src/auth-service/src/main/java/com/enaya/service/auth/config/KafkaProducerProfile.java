@@ -0,0 +1,6 @@
+package com.enaya.service.auth.config;
+
+public enum KafkaProducerProfile {
+    THROUGHPUT,  // Gros lots, compression, linger élevé : événements de connexion, flux volumineux
+    LATENCY      // Envoi quasi immédiat : réinitialisation de mot de passe, inscription
+}
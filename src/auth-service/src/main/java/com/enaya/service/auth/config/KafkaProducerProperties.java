@@ -0,0 +1,54 @@
+package com.enaya.service.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Profils de producteur Kafka.
+ *
+ * Les deux profils sont idempotents (acks=all, max 5 requêtes en vol) : un renvoi après
+ * timeout ne crée pas de doublon et l'ordre par partition est conservé. Ils ne diffèrent
+ * que par le compromis lot/latence. Le profil est choisi par topic via topic-profiles.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "kafka.producer")
+@Data
+public class KafkaProducerProperties {
+
+    private Profile throughput = new Profile(20, 131072, "lz4");
+    private Profile latency = new Profile(0, 16384, "none");
+
+    private KafkaProducerProfile defaultProfile = KafkaProducerProfile.LATENCY;
+
+    // Ex. kafka.producer.topic-profiles.auth.customer-logged-in=THROUGHPUT
+    private Map<String, KafkaProducerProfile> topicProfiles = new HashMap<>();
+
+    public Profile get(KafkaProducerProfile profile) {
+        return profile == KafkaProducerProfile.LATENCY ? latency : throughput;
+    }
+
+    public KafkaProducerProfile profileFor(String topic) {
+        return topicProfiles.getOrDefault(topic, defaultProfile);
+    }
+
+    @Data
+    public static class Profile {
+        private int lingerMs;
+        private int batchSize;
+        private String compressionType;
+        private int deliveryTimeoutMs = 120000;
+
+        public Profile() {
+        }
+
+        public Profile(int lingerMs, int batchSize, String compressionType) {
+            this.lingerMs = lingerMs;
+            this.batchSize = batchSize;
+            this.compressionType = compressionType;
+        }
+    }
+}
@@ -1,45 +1,65 @@
 package com.enaya.service.auth.infrastructure.messaging;
 
+import com.enaya.service.auth.config.KafkaProducerProfile;
+import com.enaya.service.auth.config.KafkaProducerProperties;
 import com.enaya.service.auth.domain.events.*;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class KafkaEventPublisher {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplate<String, Object> throughputKafkaTemplate;
+    private final KafkaProducerProperties producerProperties;
+
+    public KafkaEventPublisher(@Qualifier("kafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate,
+                               @Qualifier("throughputKafkaTemplate") KafkaTemplate<String, Object> throughputKafkaTemplate,
+                               KafkaProducerProperties producerProperties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.throughputKafkaTemplate = throughputKafkaTemplate;
+        this.producerProperties = producerProperties;
+    }
 
     public void publish(PasswordResetRequested event) {
         log.info("Publishing password reset request event for email: {}", event.email());
-        kafkaTemplate.send("auth.password-reset-requested", event.email(), event);
+        send("auth.password-reset-requested", event.email(), event);
     }
 
     public void publish(PasswordChanged event) {
         log.info("Publishing password changed event for user: {}", event.authenticationId());
-        kafkaTemplate.send("auth.password-changed", event.authenticationId().toString(), event);
+        send("auth.password-changed", event.authenticationId().toString(), event);
     }
 
     public void publish(CustomerRegistered event) {
         log.info("Publishing customer registered event for user: {}", event.authenticationId());
-        kafkaTemplate.send("auth.customer-registered", event.authenticationId().toString(), event);
+        send("auth.customer-registered", event.authenticationId().toString(), event);
     }
 
     public void publish(CustomerLoggedIn event) {
         log.info("Publishing customer logged in event for user: {}", event.authenticationId());
-        kafkaTemplate.send("auth.customer-logged-in", event.authenticationId().toString(), event);
+        send("auth.customer-logged-in", event.authenticationId().toString(), event);
     }
 
     public void publish(CustomerLoggedOut event) {
         log.info("Publishing customer logged out event for user: {}", event.authenticationId());
-        kafkaTemplate.send("auth.customer-logged-out", event.authenticationId().toString(), event);
+        send("auth.customer-logged-out", event.authenticationId().toString(), event);
     }
 
     public void publish(LoginAttemptFailed event) {
         log.info("Publishing login attempt failed event for username: {}", event.usernameOrEmail());
-        kafkaTemplate.send("auth.login-attempt-failed", event.usernameOrEmail(), event);
+        send("auth.login-attempt-failed", event.usernameOrEmail(), event);
+    }
+
+    // Le profil de producteur est choisi par topic (kafka.producer.topic-profiles)
+    private void send(String topic, String key, Object event) {
+        KafkaTemplate<String, Object> template =
+                producerProperties.profileFor(topic) == KafkaProducerProfile.THROUGHPUT
+                        ? throughputKafkaTemplate
+                        : kafkaTemplate;
+        template.send(topic, key, event);
     }
-}
\ No newline at end of file
+}
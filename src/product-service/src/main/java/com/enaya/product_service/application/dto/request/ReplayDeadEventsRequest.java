@@ -0,0 +1,15 @@
+package com.enaya.product_service.application.dto.request;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.Positive;
+
+@Data
+public class ReplayDeadEventsRequest {
+    private String topic;
+    private String eventType;
+    private String aggregateId;
+
+    @Positive(message = "La limite doit être positive")
+    private Integer limit;
+}
@@ -0,0 +1,23 @@
+package com.enaya.product_service.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+public class OutboxEventResponse {
+    private UUID id;
+    private String eventType;
+    private String topic;
+    private String aggregateId;
+    private String aggregateType;
+    private String status;
+    private Integer retryCount;
+    private String lastError;
+    private int payloadSize;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
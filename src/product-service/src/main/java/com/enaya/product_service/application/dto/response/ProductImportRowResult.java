@@ -0,0 +1,26 @@
+package com.enaya.product_service.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ProductImportRowResult {
+
+    public enum Status {
+        CREATED,
+        // Ligne invalide ou en conflit, rien n'a été écrit
+        REJECTED,
+        // Ligne valide dont l'écriture a échoué
+        FAILED
+    }
+
+    private int row;
+    private String sku;
+    private Status status;
+    private UUID productId;
+    private List<String> errors;
+}
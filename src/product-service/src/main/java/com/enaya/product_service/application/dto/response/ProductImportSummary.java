@@ -0,0 +1,15 @@
+package com.enaya.product_service.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductImportSummary {
+    private int totalRows;
+    private int created;
+    private int rejected;
+    private int failed;
+    private int indexed;
+    private long durationMs;
+}
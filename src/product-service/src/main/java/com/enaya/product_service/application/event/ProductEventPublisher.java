@@ -10,6 +10,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -21,7 +22,20 @@ public class ProductEventPublisher {
 
     public void publishProductCreated(Product product) {
         log.info("Publishing ProductCreated event for product: {}", product.getId());
-        eventPublisher.publishEvent(ProductCreated.of(
+        eventPublisher.publishEvent(productCreated(product));
+    }
+
+    // Import en masse : une ligne INFO par lot, le détail par produit passe en DEBUG
+    public void publishProductsCreated(List<Product> products) {
+        log.info("Publishing ProductCreated events for {} products", products.size());
+        products.forEach(product -> {
+            log.debug("Publishing ProductCreated event for product: {}", product.getId());
+            eventPublisher.publishEvent(productCreated(product));
+        });
+    }
+
+    private static ProductCreated productCreated(Product product) {
+        return ProductCreated.of(
                 product.getId(),
                 product.getName(),
                 product.getDescription(),
@@ -35,7 +49,7 @@ public class ProductEventPublisher {
                 product.getAttributes(),
                 product.getImages(),
                 product.getVersion()
-        ));
+        );
     }
 
     public void publishProductUpdated(Product product) {
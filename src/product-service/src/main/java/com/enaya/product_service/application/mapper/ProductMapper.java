@@ -164,14 +164,12 @@ public class ProductMapper {
 
         // Mise à jour des attributs
         if (request.getAttributes() != null) {
-            product.getAttributes().clear();
-            product.getAttributes().addAll(request.getAttributes());
+            product.replaceAttributes(request.getAttributes());
         }
 
         // Mise à jour des images
         if (request.getImages() != null) {
-            product.getImages().clear();
-            product.getImages().addAll(request.getImages());
+            product.replaceImages(request.getImages());
         }
 
         // Mise à jour du statut actif
@@ -218,14 +216,12 @@ public class ProductMapper {
 
         // Mise à jour des attributs spécifiques
         if (request.getSpecificAttributes() != null) {
-            variant.getSpecificAttributes().clear();
-            variant.getSpecificAttributes().addAll(request.getSpecificAttributes());
+            variant.replaceSpecificAttributes(request.getSpecificAttributes());
         }
 
         // Mise à jour des images
         if (request.getImages() != null) {
-            variant.getImages().clear();
-            variant.getImages().addAll(request.getImages());
+            variant.replaceImages(request.getImages());
         }
 
         // Mise à jour du statut actif
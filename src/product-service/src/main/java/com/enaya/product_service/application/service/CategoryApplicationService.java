@@ -1,11 +1,13 @@
 package com.enaya.product_service.application.service;
 
 import com.enaya.product_service.application.dto.request.CreateCategoryRequest;
+import com.enaya.product_service.application.dto.request.MoveCategoryRequest;
 import com.enaya.product_service.application.dto.request.UpdateCategoryRequest;
 import com.enaya.product_service.application.dto.response.CategoryResponse;
 import com.enaya.product_service.application.dto.response.CategoryTreeResponse;
 import com.enaya.product_service.application.mapper.CategoryMapper;
 import com.enaya.product_service.domain.event.category.CategoryCreated;
+import com.enaya.product_service.domain.event.category.CategoryHierarchyChanged;
 import com.enaya.product_service.domain.event.category.CategoryUpdated;
 import com.enaya.product_service.domain.model.category.Category;
 import com.enaya.product_service.domain.model.product.Product;
@@ -21,8 +23,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -140,9 +144,21 @@ public class CategoryApplicationService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found"));
 
+        String previousFullPath = category.getFullPath();
+        String previousName = category.getName();
+
         // Update basic info
         categoryDomainService.updateCategoryBasicInfo(category, request.getName(), request.getDescription());
 
+        // Un renommage change le chemin complet de la catégorie et de ses descendants
+        boolean renamed = previousFullPath != null && !category.getName().equals(previousName);
+        if (renamed) {
+            String newFullPath = previousFullPath.endsWith(previousName)
+                    ? previousFullPath.substring(0, previousFullPath.length() - previousName.length()) + category.getName()
+                    : category.getName();
+            rewriteSubtreePaths(category, previousFullPath, newFullPath, category.getLevel());
+        }
+
         // Update metadata if provided
 
 
@@ -178,10 +194,94 @@ public class CategoryApplicationService {
         
         // Publish category updated event
         eventPublisher.publishEvent(CategoryUpdated.from(updatedCategory));
+        if (renamed) {
+            eventPublisher.publishEvent(CategoryHierarchyChanged.from(
+                    updatedCategory, updatedCategory.getParentId(), previousFullPath));
+        }
 
         return categoryMapper.toResponse(updatedCategory);
     }
 
+    @Transactional
+    public CategoryResponse moveCategory(UUID id, MoveCategoryRequest request) {
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Category not found"));
+        Category newParent = categoryRepository.findById(request.getNewParentId())
+                .orElseThrow(() -> new IllegalArgumentException("Parent category not found"));
+
+        if (isSameOrDescendant(newParent, category)) {
+            throw new IllegalArgumentException("A category cannot be moved under itself or one of its descendants");
+        }
+
+        UUID previousParentId = category.getParentId();
+        String previousFullPath = category.getFullPath();
+
+        if (previousParentId != null) {
+            categoryRepository.findById(previousParentId).ifPresent(oldParent -> {
+                categoryDomainService.removeChildCategory(oldParent, category.getId());
+                categoryRepository.save(oldParent);
+            });
+        }
+        categoryDomainService.addChildCategory(newParent, category.getId());
+        categoryRepository.save(newParent);
+
+        String parentPath = newParent.getFullPath() != null ? newParent.getFullPath() : newParent.getName();
+        String newFullPath = parentPath + " > " + category.getName();
+        int newLevel = newParent.getLevel() + 1;
+        rewriteSubtreePaths(category, previousFullPath, newFullPath, newLevel);
+        categoryDomainService.moveCategoryToParent(category, newParent.getId(), newFullPath, newLevel);
+
+        Category movedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CategoryHierarchyChanged.from(movedCategory, previousParentId, previousFullPath));
+
+        return categoryMapper.toResponse(movedCategory);
+    }
+
+    // Chemins complets si disponibles, sinon remontée des parents (chemins absents sur d'anciennes lignes)
+    private boolean isSameOrDescendant(Category candidate, Category ancestor) {
+        if (candidate.getId().equals(ancestor.getId())) {
+            return true;
+        }
+        if (candidate.getFullPath() != null && ancestor.getFullPath() != null) {
+            return candidate.getFullPath().startsWith(ancestor.getFullPath() + " > ");
+        }
+        Set<UUID> visited = new HashSet<>();
+        UUID parentId = candidate.getParentId();
+        while (parentId != null && visited.add(parentId)) {
+            if (parentId.equals(ancestor.getId())) {
+                return true;
+            }
+            parentId = categoryRepository.findById(parentId).map(Category::getParentId).orElse(null);
+        }
+        return false;
+    }
+
+    // Réécrit le chemin et le niveau de la catégorie puis de tous ses descendants
+    private void rewriteSubtreePaths(Category category, String previousFullPath, String newFullPath, int newLevel) {
+        if (previousFullPath == null) {
+            // Sans chemin connu, les descendants ne peuvent pas être retrouvés par préfixe
+            categoryDomainService.updateCategoryHierarchy(category, newFullPath, newLevel);
+            return;
+        }
+        int levelDelta = newLevel - category.getLevel();
+        String previousPrefix = previousFullPath + " > ";
+
+        for (Category descendant : categoryRepository.findDescendants(category.getId())) {
+            if (descendant.getId().equals(category.getId())
+                    || descendant.getFullPath() == null
+                    || !descendant.getFullPath().startsWith(previousPrefix)) {
+                continue;
+            }
+            categoryDomainService.updateCategoryHierarchy(
+                    descendant,
+                    newFullPath + " > " + descendant.getFullPath().substring(previousPrefix.length()),
+                    descendant.getLevel() + levelDelta
+            );
+            categoryRepository.save(descendant);
+        }
+        categoryDomainService.updateCategoryHierarchy(category, newFullPath, newLevel);
+    }
+
     @Transactional
     public void deleteCategory(UUID id) {
         Category category = categoryRepository.findById(id)
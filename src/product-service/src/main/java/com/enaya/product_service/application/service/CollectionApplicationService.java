@@ -5,17 +5,22 @@ import com.enaya.product_service.application.dto.request.UpdateCollectionRequest
 import com.enaya.product_service.application.dto.response.CollectionResponse;
 import com.enaya.product_service.application.mapper.CollectionMapper;
 import com.enaya.product_service.domain.event.collection.CollectionArchived;
+import com.enaya.product_service.domain.event.collection.CollectionProductAdded;
+import com.enaya.product_service.domain.event.collection.CollectionProductRemoved;
 import com.enaya.product_service.domain.event.collection.CollectionPublished;
 import com.enaya.product_service.domain.event.collection.CollectionUpdated;
 import com.enaya.product_service.domain.model.collection.Collection;
 import com.enaya.product_service.domain.repository.CollectionRepository;
+import com.enaya.product_service.domain.repository.ProductRepository;
 import com.enaya.product_service.domain.service.CollectionDomainService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -23,6 +28,7 @@ import java.util.UUID;
 public class CollectionApplicationService {
 
     private final CollectionRepository collectionRepository;
+    private final ProductRepository productRepository;
     private final CollectionDomainService collectionDomainService;
     private final CollectionMapper collectionMapper;
     private final ApplicationEventPublisher eventPublisher;
@@ -36,6 +42,7 @@ public class CollectionApplicationService {
 
         Collection collection = collectionMapper.toEntity(request);
         Collection savedCollection = collectionRepository.save(collection);
+        syncMembership(savedCollection, List.of());
         return collectionMapper.toResponse(savedCollection);
     }
 
@@ -66,8 +73,10 @@ public class CollectionApplicationService {
         Collection collection = collectionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Collection not found"));
 
+        List<UUID> previousProductIds = productIdsOf(collection);
         collectionMapper.updateEntity(collection, request);
         Collection updatedCollection = collectionRepository.save(collection);
+        syncMembership(updatedCollection, previousProductIds);
         
         // Publish collection updated event
         eventPublisher.publishEvent(CollectionUpdated.from(updatedCollection));
@@ -125,8 +134,10 @@ public class CollectionApplicationService {
         Collection collection = collectionRepository.findById(collectionId)
                 .orElseThrow(() -> new IllegalArgumentException("Collection not found"));
 
+        List<UUID> previousProductIds = productIdsOf(collection);
         collectionDomainService.addProductToCollection(collection, productId);
         Collection updatedCollection = collectionRepository.save(collection);
+        syncMembership(updatedCollection, previousProductIds);
         
         // Publish collection updated event
         eventPublisher.publishEvent(CollectionUpdated.from(updatedCollection));
@@ -139,12 +150,35 @@ public class CollectionApplicationService {
         Collection collection = collectionRepository.findById(collectionId)
                 .orElseThrow(() -> new IllegalArgumentException("Collection not found"));
 
+        List<UUID> previousProductIds = productIdsOf(collection);
         collectionDomainService.removeProductFromCollection(collection, productId);
         Collection updatedCollection = collectionRepository.save(collection);
+        syncMembership(updatedCollection, previousProductIds);
         
         // Publish collection updated event
         eventPublisher.publishEvent(CollectionUpdated.from(updatedCollection));
 
         return collectionMapper.toResponse(updatedCollection);
     }
+
+    // La table product_collections (côté Product) fait foi pour l'indexation, la recherche et les
+    // compteurs : la liste productIds de la collection y est reportée dans la même transaction
+    private void syncMembership(Collection collection, List<UUID> previousProductIds) {
+        Set<UUID> current = new HashSet<>(productIdsOf(collection));
+        Set<UUID> added = new HashSet<>(current);
+        added.removeAll(previousProductIds);
+        Set<UUID> removed = new HashSet<>(previousProductIds);
+        removed.removeAll(current);
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        productRepository.updateCollectionMembership(collection, added, removed);
+        added.forEach(productId -> eventPublisher.publishEvent(CollectionProductAdded.from(collection, productId)));
+        removed.forEach(productId -> eventPublisher.publishEvent(CollectionProductRemoved.from(collection, productId)));
+    }
+
+    private static List<UUID> productIdsOf(Collection collection) {
+        return collection.getProductIds() != null ? List.copyOf(collection.getProductIds()) : List.of();
+    }
 }
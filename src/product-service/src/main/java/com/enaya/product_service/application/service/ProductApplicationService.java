@@ -33,6 +33,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Currency;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.ArrayList;
 
@@ -85,6 +86,23 @@ public class ProductApplicationService {
         categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new IllegalArgumentException("Category with id " + request.getCategoryId() + " not found"));
 
+        Product product = buildProduct(request,
+                request.getCollectionIds() != null ? fetchCollectionsByIds(request.getCollectionIds()) : new ArrayList<>());
+
+        // Sauvegarder le produit une seule fois avec toutes ses variantes
+        Product savedProduct = productRepository.save(product);
+
+        // Publication de l'événement ProductCreated
+        eventPublisher.publishProductCreated(savedProduct);
+
+        return productMapper.toResponse(savedProduct);
+    }
+
+    /**
+     * Construit l'agrégat produit (avec ses variantes) à partir d'une requête de création, sans le persister.
+     * Les collections sont fournies par l'appelant, déjà chargées.
+     */
+    public Product buildProduct(CreateProductRequest request, List<Collection> collections) {
         // Créer le produit de base (Hibernate générera l'ID automatiquement)
         Product product = Product.builder()
                 .name(request.getName())
@@ -92,7 +110,7 @@ public class ProductApplicationService {
                 .sku(request.getSku())
                 .price(request.getPrice())
                 .categoryId(request.getCategoryId())
-                .collections(request.getCollectionIds() != null ? fetchCollectionsByIds(request.getCollectionIds()) : new ArrayList<>())
+                .collections(collections)
                 .attributes(request.getAttributes() != null ? new ArrayList<>(request.getAttributes()) : new ArrayList<>())
                 .images(request.getImages() != null ? new ArrayList<>(request.getImages()) : new ArrayList<>())
                 .active(request.isActive())
@@ -130,13 +148,7 @@ public class ProductApplicationService {
             });
         }
 
-        // Sauvegarder le produit une seule fois avec toutes ses variantes
-        Product savedProduct = productRepository.save(product);
-
-        // Publication de l'événement ProductCreated
-        eventPublisher.publishProductCreated(savedProduct);
-
-        return productMapper.toResponse(savedProduct);
+        return product;
     }
 
     @Transactional
@@ -208,6 +220,15 @@ public class ProductApplicationService {
         return productMapper.toResponse(product);
     }
 
+    // Requête EXISTS sur les variantes, sans charger l'agrégat
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductAvailability(UUID productId) {
+        return Map.of(
+                "productId", productId,
+                "available", productDomainService.isProductAvailable(productId)
+        );
+    }
+
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
@@ -236,6 +257,11 @@ public class ProductApplicationService {
         return products.map(productMapper::toResponse);
     }
 
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductStatistics() {
+        return productDomainService.getProductStatistics();
+    }
+
     private List<Collection> fetchCollectionsByIds(List<UUID> ids) {
         return collectionRepository.findAllById(ids);
     }
@@ -0,0 +1,500 @@
+package com.enaya.product_service.application.service;
+
+import com.enaya.product_service.application.dto.request.CreateProductRequest;
+import com.enaya.product_service.application.dto.request.CreateProductVariantRequest;
+import com.enaya.product_service.application.dto.response.ProductImportRowResult;
+import com.enaya.product_service.application.dto.response.ProductImportSummary;
+import com.enaya.product_service.application.event.ProductEventPublisher;
+import com.enaya.product_service.domain.exception.ProductException;
+import com.enaya.product_service.domain.model.collection.Collection;
+import com.enaya.product_service.domain.model.product.Product;
+import com.enaya.product_service.domain.model.product.valueobjects.Price;
+import com.enaya.product_service.domain.model.product.valueobjects.ProductAttribute;
+import com.enaya.product_service.infrastructure.persistence.elasticsearch.service.ElasticsearchSyncService;
+import com.enaya.product_service.infrastructure.persistence.repository.ProductBulkWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Import en masse de produits (NDJSON ou CSV) lu en flux et traité par lots.
+ *
+ * Pour chaque lot : validation en parallèle, contrôles ensemblistes (SKU déjà pris, catégories et
+ * collections inexistantes), puis insertion en batch JDBC dans une seule transaction. Si le lot échoue
+ * à l'écriture, ses lignes sont rejouées une par une pour isoler la ligne fautive. L'indexation
+ * Elasticsearch est différée en un seul passage bulk à la fin de l'import.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportApplicationService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Reçoit le résultat de chaque ligne dans l'ordre du fichier, puis un signal à la fin de chaque lot.
+     */
+    public interface RowListener {
+        void onRow(ProductImportRowResult result);
+
+        void onChunkCompleted();
+    }
+
+    private static final String DEFAULT_CURRENCY = "MAD";
+
+    private final ProductApplicationService productApplicationService;
+    private final ProductBulkWriter bulkWriter;
+    private final ProductEventPublisher eventPublisher;
+    private final ElasticsearchSyncService elasticsearchSyncService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${product.import.chunk-size:500}")
+    private int chunkSize;
+
+    // 0 = nombre de cœurs disponibles
+    @Value("${product.import.validation-parallelism:0}")
+    private int validationParallelism;
+
+    @Value("${product.import.index-batch-size:500}")
+    private int indexBatchSize;
+
+    public ProductImportSummary importProducts(InputStream input, Format format, RowListener listener) throws IOException {
+        long start = System.nanoTime();
+        ImportState state = new ImportState();
+        int parallelism = validationParallelism > 0 ? validationParallelism : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool validationPool = new ForkJoinPool(parallelism);
+
+        int indexed;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowReader rows = format == Format.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+            List<ImportRow> chunk;
+            while (!(chunk = rows.next(chunkSize)).isEmpty()) {
+                processChunk(chunk, state, validationPool);
+                chunk.forEach(row -> {
+                    state.count(row.result.getStatus());
+                    listener.onRow(row.result);
+                });
+                listener.onChunkCompleted();
+            }
+        } finally {
+            validationPool.shutdown();
+            // Les lots déjà commités sont indexés même si l'import s'interrompt
+            // (déconnexion du client pendant l'écriture de la réponse, erreur base sur un lot suivant)
+            indexed = indexCreatedProducts(state.createdIds);
+        }
+        ProductImportSummary summary = ProductImportSummary.builder()
+                .totalRows(state.total)
+                .created(state.created)
+                .rejected(state.rejected)
+                .failed(state.failed)
+                .indexed(indexed)
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+        log.info("Product import completed: {}", summary);
+        return summary;
+    }
+
+    private void processChunk(List<ImportRow> chunk, ImportState state, ForkJoinPool validationPool) {
+        // Validation indépendante ligne à ligne, sans accès base
+        validationPool.submit(() -> chunk.parallelStream().forEach(this::validate)).join();
+
+        // Doublons dans le fichier : la première occurrence l'emporte
+        List<ImportRow> candidates = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            if (row.isRejected()) {
+                continue;
+            }
+            List<String> duplicates = row.allSkus().stream().filter(state.seenSkus::contains).toList();
+            if (!duplicates.isEmpty()) {
+                row.reject("Duplicate SKU in import file: " + String.join(", ", duplicates));
+                continue;
+            }
+            state.seenSkus.addAll(row.allSkus());
+            candidates.add(row);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Contrôles ensemblistes : une requête par nature de contrôle pour tout le lot
+        Set<String> productSkus = new HashSet<>();
+        Set<String> variantSkus = new HashSet<>();
+        Set<UUID> categoryIds = new HashSet<>();
+        Set<UUID> collectionIds = new HashSet<>();
+        candidates.forEach(row -> {
+            productSkus.add(row.request.getSku());
+            variantSkus.addAll(row.variantSkus());
+            categoryIds.add(row.request.getCategoryId());
+            collectionIds.addAll(row.collectionIds());
+        });
+        Set<String> takenProductSkus = bulkWriter.findExistingProductSkus(productSkus);
+        Set<String> takenVariantSkus = bulkWriter.findExistingVariantSkus(variantSkus);
+        Set<UUID> existingCategories = bulkWriter.findExistingCategoryIds(categoryIds);
+        Map<UUID, Collection> collections = bulkWriter.findCollections(collectionIds);
+
+        List<ImportRow> writable = new ArrayList<>();
+        for (ImportRow row : candidates) {
+            if (takenProductSkus.contains(row.request.getSku())) {
+                row.reject("Product with SKU " + row.request.getSku() + " already exists");
+            }
+            row.variantSkus().stream()
+                    .filter(takenVariantSkus::contains)
+                    .forEach(sku -> row.reject("Variant with SKU " + sku + " already exists"));
+            if (!existingCategories.contains(row.request.getCategoryId())) {
+                row.reject("Category with id " + row.request.getCategoryId() + " not found");
+            }
+            row.collectionIds().stream()
+                    .filter(id -> !collections.containsKey(id))
+                    .forEach(id -> row.reject("Collection with id " + id + " not found"));
+            if (!row.isRejected()) {
+                writable.add(row);
+            }
+        }
+        if (writable.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(writable, collections);
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} products failed, retrying row by row: {}", writable.size(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (ImportRow row : writable) {
+                try {
+                    write(List.of(row), collections);
+                } catch (ProductException.ProductValidationException conflict) {
+                    row.reject(conflict.getMessage());
+                } catch (RuntimeException rowFailure) {
+                    row.fail(NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        writable.stream()
+                .filter(row -> row.result.getStatus() == ProductImportRowResult.Status.CREATED)
+                .forEach(row -> state.createdIds.add(row.result.getProductId()));
+    }
+
+    private void write(List<ImportRow> rows, Map<UUID, Collection> collections) {
+        // L'agrégat est reconstruit à chaque tentative : un échec laisse des identifiants déjà attribués
+        Map<ImportRow, Product> products = new HashMap<>();
+        rows.forEach(row -> products.put(row, productApplicationService.buildProduct(row.request,
+                row.collectionIds().stream().map(collections::get).toList())));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Product> inserted = rows.stream().map(products::get).toList();
+            bulkWriter.insert(inserted);
+            eventPublisher.publishProductsCreated(inserted);
+        });
+        rows.forEach(row -> row.created(products.get(row).getId()));
+    }
+
+    private int indexCreatedProducts(List<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        // Transaction en écriture : les lectures readOnly peuvent partir sur un réplica en retard sur l'import
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int indexed = 0;
+        for (int from = 0; from < productIds.size(); from += indexBatchSize) {
+            List<UUID> batch = productIds.subList(from, Math.min(from + indexBatchSize, productIds.size()));
+            try {
+                transaction.executeWithoutResult(status ->
+                        elasticsearchSyncService.bulkIndexProducts(bulkWriter.findByIds(batch)));
+                indexed += batch.size();
+            } catch (RuntimeException e) {
+                log.error("Deferred indexing failed for {} imported products", batch.size(), e);
+            }
+        }
+        return indexed;
+    }
+
+    private void validate(ImportRow row) {
+        if (row.isRejected()) {
+            return;
+        }
+        CreateProductRequest request = row.request;
+        validator.validate(request).forEach(violation -> row.reject(describe(violation)));
+        if (request.getVariants() != null) {
+            for (CreateProductVariantRequest variant : request.getVariants()) {
+                validator.validate(variant).forEach(violation -> row.reject("variants." + describe(violation)));
+            }
+        }
+        List<String> skus = row.allSkus();
+        if (new HashSet<>(skus).size() != skus.size()) {
+            row.reject("Duplicate SKU within product and its variants");
+        }
+    }
+
+    private static String describe(ConstraintViolation<?> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    // Lecture des lignes
+
+    private interface RowReader {
+        List<ImportRow> next(int max) throws IOException;
+    }
+
+    private class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private int lineNumber;
+
+        private NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public List<ImportRow> next(int max) throws IOException {
+            List<ImportRow> rows = new ArrayList<>(max);
+            String line;
+            while (rows.size() < max && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    rows.add(new ImportRow(lineNumber, objectMapper.readValue(line, CreateProductRequest.class)));
+                } catch (JsonProcessingException e) {
+                    rows.add(ImportRow.invalid(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Colonnes (en-tête obligatoire) : name, description, sku, price, currency, categoryId, collectionIds
+     * (séparées par |), attributes (nom=valeur séparés par |), active. Les champs entre guillemets sont
+     * acceptés mais ne peuvent pas contenir de retour à la ligne ; les variantes passent par le format NDJSON.
+     */
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private Map<String, Integer> columns;
+        private int lineNumber;
+
+        private CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public List<ImportRow> next(int max) throws IOException {
+            List<ImportRow> rows = new ArrayList<>(max);
+            String line;
+            while (rows.size() < max && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseLine(line);
+                if (columns == null) {
+                    columns = new HashMap<>();
+                    for (int i = 0; i < fields.size(); i++) {
+                        columns.put(fields.get(i).trim(), i);
+                    }
+                    continue;
+                }
+                try {
+                    rows.add(new ImportRow(lineNumber, toRequest(fields)));
+                } catch (IllegalArgumentException e) {
+                    rows.add(ImportRow.invalid(lineNumber, e.getMessage()));
+                }
+            }
+            return rows;
+        }
+
+        private CreateProductRequest toRequest(List<String> fields) {
+            CreateProductRequest request = new CreateProductRequest();
+            request.setName(field(fields, "name"));
+            request.setDescription(field(fields, "description"));
+            request.setSku(field(fields, "sku"));
+
+            String amount = field(fields, "price");
+            if (amount != null) {
+                String currency = field(fields, "currency");
+                request.setPrice(Price.of(new BigDecimal(amount),
+                        Currency.getInstance(currency != null ? currency : DEFAULT_CURRENCY)));
+            }
+            String categoryId = field(fields, "categoryId");
+            if (categoryId != null) {
+                request.setCategoryId(UUID.fromString(categoryId));
+            }
+            String collectionIds = field(fields, "collectionIds");
+            if (collectionIds != null) {
+                request.setCollectionIds(Arrays.stream(collectionIds.split("\\|"))
+                        .map(String::trim)
+                        .filter(id -> !id.isEmpty())
+                        .map(UUID::fromString)
+                        .toList());
+            }
+            String attributes = field(fields, "attributes");
+            if (attributes != null) {
+                List<ProductAttribute> parsed = new ArrayList<>();
+                for (String pair : attributes.split("\\|")) {
+                    int separator = pair.indexOf('=');
+                    if (separator <= 0) {
+                        throw new IllegalArgumentException("Invalid attribute '" + pair + "', expected name=value");
+                    }
+                    parsed.add(ProductAttribute.of(pair.substring(0, separator), pair.substring(separator + 1)));
+                }
+                request.setAttributes(parsed);
+            }
+            String active = field(fields, "active");
+            request.setActive(active == null || Boolean.parseBoolean(active));
+            return request;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static List<String> parseLine(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+
+    // État d'une ligne et de l'import
+
+    private static class ImportRow {
+        private final CreateProductRequest request;
+        private final ProductImportRowResult result;
+        private final List<String> errors = new ArrayList<>();
+
+        private ImportRow(int row, CreateProductRequest request) {
+            this.request = request;
+            this.result = ProductImportRowResult.builder()
+                    .row(row)
+                    .sku(request != null ? request.getSku() : null)
+                    .build();
+        }
+
+        static ImportRow invalid(int row, String error) {
+            ImportRow importRow = new ImportRow(row, null);
+            importRow.reject(error);
+            return importRow;
+        }
+
+        // Appelé depuis les threads de validation : une ligne n'est traitée que par un seul thread
+        void reject(String error) {
+            errors.add(error);
+            result.setStatus(ProductImportRowResult.Status.REJECTED);
+            result.setErrors(errors);
+        }
+
+        void fail(String error) {
+            errors.add(error);
+            result.setStatus(ProductImportRowResult.Status.FAILED);
+            result.setErrors(errors);
+        }
+
+        void created(UUID productId) {
+            result.setStatus(ProductImportRowResult.Status.CREATED);
+            result.setProductId(productId);
+        }
+
+        boolean isRejected() {
+            return result.getStatus() == ProductImportRowResult.Status.REJECTED;
+        }
+
+        List<String> variantSkus() {
+            if (request.getVariants() == null) {
+                return List.of();
+            }
+            return request.getVariants().stream()
+                    .map(CreateProductVariantRequest::getSku)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        List<String> allSkus() {
+            List<String> skus = new ArrayList<>(variantSkus());
+            skus.add(request.getSku());
+            return skus;
+        }
+
+        List<UUID> collectionIds() {
+            if (request.getCollectionIds() == null) {
+                return List.of();
+            }
+            return new ArrayList<>(new LinkedHashSet<>(request.getCollectionIds()));
+        }
+    }
+
+    private static class ImportState {
+        private final Set<String> seenSkus = new HashSet<>();
+        private final List<UUID> createdIds = new ArrayList<>();
+        private int total;
+        private int created;
+        private int rejected;
+        private int failed;
+
+        void count(ProductImportRowResult.Status status) {
+            total++;
+            switch (status) {
+                case CREATED -> created++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+        }
+    }
+}
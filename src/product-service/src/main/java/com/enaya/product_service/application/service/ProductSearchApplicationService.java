@@ -90,9 +90,8 @@ public class ProductSearchApplicationService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
 
         List<Product> similarProducts = productRepository.findRelatedProducts(
-                product.getCategoryId(),
-                new HashSet<>(product.getAttributes()),
                 productId,
+                product.getCategoryId(),
                 size
         );
 
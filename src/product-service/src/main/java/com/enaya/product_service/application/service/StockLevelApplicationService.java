@@ -0,0 +1,97 @@
+package com.enaya.product_service.application.service;
+
+import com.enaya.product_service.domain.model.product.ProductVariant;
+import com.enaya.product_service.domain.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockLevelApplicationService {
+
+    @Qualifier("productRepositoryImpl")
+    private final ProductRepository productRepository;
+
+    /**
+     * Changement de statut de stock déjà dédoublonné.
+     * variantId null : s'applique à toutes les variantes du produit.
+     */
+    public record StockLevelChange(UUID productId, UUID variantId, ProductVariant.StockStatus status) {
+    }
+
+    /**
+     * Applique un lot de changements en une transaction : une requête par produit pour les
+     * changements globaux, puis une requête par couple (produit, statut) pour les variantes.
+     * Les changements globaux passent en premier ; l'appelant garantit qu'aucun changement
+     * de variante antérieur au changement global de son produit n'est présent dans le lot.
+     * Retourne le statut et la version des variantes touchées, lus dans la même transaction,
+     * pour que la mise à jour de l'index soit gardée par version.
+     */
+    @Transactional
+    public List<ProductRepository.VariantStockVersion> applyStockLevelChanges(List<StockLevelChange> changes) {
+        Map<UUID, ProductVariant.StockStatus> productWide = new LinkedHashMap<>();
+        Map<UUID, Map<ProductVariant.StockStatus, List<UUID>>> byProductAndStatus = new LinkedHashMap<>();
+
+        for (StockLevelChange change : changes) {
+            if (change.variantId() == null) {
+                productWide.put(change.productId(), change.status());
+            } else {
+                byProductAndStatus
+                        .computeIfAbsent(change.productId(), id -> new LinkedHashMap<>())
+                        .computeIfAbsent(change.status(), status -> new ArrayList<>())
+                        .add(change.variantId());
+            }
+        }
+
+        int updated = 0;
+        for (Map.Entry<UUID, ProductVariant.StockStatus> entry : productWide.entrySet()) {
+            updated += productRepository.updateAllVariantsStockStatus(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<UUID, Map<ProductVariant.StockStatus, List<UUID>>> product : byProductAndStatus.entrySet()) {
+            for (Map.Entry<ProductVariant.StockStatus, List<UUID>> group : product.getValue().entrySet()) {
+                updated += productRepository.updateVariantsStockStatus(product.getKey(), group.getValue(), group.getKey());
+            }
+        }
+
+        log.info("Applied {} stock level changes ({} variants updated)", changes.size(), updated);
+        if (updated == 0) {
+            return List.of();
+        }
+
+        Set<UUID> productIds = new HashSet<>(productWide.keySet());
+        productIds.addAll(byProductAndStatus.keySet());
+        return productRepository.findVariantStockVersions(productIds).stream()
+                .filter(variant -> productWide.containsKey(variant.productId())
+                        || byProductAndStatus.getOrDefault(variant.productId(), Map.of()).values().stream()
+                                .anyMatch(ids -> ids.contains(variant.variantId())))
+                .toList();
+    }
+
+    /**
+     * Chemin rapide de rupture de stock : une seule requête UPDATE, sans charger l'agrégat.
+     * Retourne la nouvelle version de la variante, ou vide si la variante n'appartient pas
+     * au produit (l'appelant se rabat alors sur le chargement complet).
+     */
+    @Transactional
+    public Optional<Long> markVariantOutOfStock(UUID productId, UUID variantId) {
+        int updated = productRepository.updateVariantStockStatus(
+                productId, variantId, ProductVariant.StockStatus.OUT_OF_STOCK);
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        return productRepository.findVariantVersion(variantId);
+    }
+}
@@ -0,0 +1,70 @@
+package com.enaya.product_service.config;
+
+import com.enaya.product_service.infrastructure.persistence.cache.HibernateCacheProperties;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Cache de second niveau Hibernate (JCache / Caffeine, en mémoire).
+ *
+ * Toutes les régions sont créées ici avec leur taille et leur durée de vie ; une entité annotée @Cache
+ * sur une région non déclarée fait échouer le démarrage plutôt que de créer un cache non borné.
+ * L'invalidation du cache de requêtes sur écriture est assurée par la région des horodatages de mise à jour.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+@ConditionalOnProperty(name = "hibernate.l2-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        properties.effectiveRegions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(region.getMaxSize() != null
+                    ? OptionalLong.of(region.getMaxSize()) : OptionalLong.empty());
+            configuration.setExpireAfterWrite(isExpiring(region.getTtl())
+                    ? OptionalLong.of(region.getTtl().toNanos()) : OptionalLong.empty());
+            configuration.setStatisticsEnabled(properties.isStatisticsEnabled());
+            if (cacheManager.getCache(name) == null) {
+                cacheManager.createCache(name, configuration);
+            }
+            log.info("L2 cache region {}: maxSize={}, ttl={}", name, region.getMaxSize(), region.getTtl());
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCachePropertiesCustomizer(CacheManager hibernateCacheManager,
+                                                                          HibernateCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.isQueryCacheEnabled());
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, properties.isStatisticsEnabled());
+        };
+    }
+
+    private static boolean isExpiring(Duration ttl) {
+        return ttl != null && !ttl.isZero() && !ttl.isNegative();
+    }
+}
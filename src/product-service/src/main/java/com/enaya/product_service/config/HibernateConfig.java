@@ -1,16 +1,25 @@
 package com.enaya.product_service.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
 import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 @Configuration
 public class HibernateConfig {
 
+    private static final List<String> BATCHING_SETTINGS = List.of(
+            "hibernate.jdbc.batch_size",
+            "hibernate.order_inserts",
+            "hibernate.order_updates",
+            "hibernate.jdbc.batch_versioned_data");
+
     @Value("${spring.jpa.hibernate.ddl-auto:update}")
     private String ddlAuto;
 
@@ -65,4 +74,26 @@ public class HibernateConfig {
         
         return properties;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Les Properties ci-dessus ne sont pas lues par Spring Boot : on reporte les réglages de batching JDBC
+     * du profil actif dans la configuration JPA, sans écraser une valeur fournie par spring.jpa.properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(Map<String, Properties> propertiesBeans) {
+        Properties source = propertiesBeans.containsKey("hibernatePropertiesProd")
+                ? propertiesBeans.get("hibernatePropertiesProd")
+                : propertiesBeans.get("hibernateProperties");
+        return hibernateProperties -> {
+            if (source == null) {
+                return;
+            }
+            BATCHING_SETTINGS.forEach(key -> {
+                String value = source.getProperty(key);
+                if (value != null) {
+                    hibernateProperties.putIfAbsent(key, value);
+                }
+            });
+        };
+    }
+}
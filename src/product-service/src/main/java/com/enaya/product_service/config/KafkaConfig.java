@@ -1,24 +1,38 @@
 package com.enaya.product_service.config;
 
+import com.enaya.product_service.infrastructure.persistence.outbox.OutboxKafkaTemplates;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+    private final KafkaProducerProperties producerProperties;
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
@@ -34,6 +48,9 @@ public class KafkaConfig {
     @Value("${kafka.topics.stock-updates}")
     private String stockUpdatesTopic;
 
+    @Value("${kafka.topics.product-snapshots:product-snapshots}")
+    private String productSnapshotsTopic;
+
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
@@ -61,13 +78,23 @@ public class KafkaConfig {
         return new NewTopic(stockUpdatesTopic, 3, (short) 1);
     }
 
+    // Topic compacté : seul le dernier snapshot de chaque produit est conservé, les tombstones
+    // restent visibles 24 h pour que les consommateurs en retard voient les suppressions
+    @Bean
+    public NewTopic productSnapshotsTopic() {
+        return TopicBuilder.name(productSnapshotsTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, "86400000")
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .config(TopicConfig.SEGMENT_MS_CONFIG, "3600000")
+                .build();
+    }
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return createProducerFactory(JsonSerializer.class, KafkaProducerProfile.LATENCY, "json");
     }
 
     @Bean
@@ -77,15 +104,64 @@ public class KafkaConfig {
 
     @Bean
     public ProducerFactory<String, String> stringProducerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return createProducerFactory(StringSerializer.class, KafkaProducerProfile.LATENCY, "string");
     }
 
     @Bean
     public KafkaTemplate<String, String> stringKafkaTemplate() {
         return new KafkaTemplate<>(stringProducerFactory());
     }
-}
\ No newline at end of file
+
+    // Relais outbox : une factory par profil, choisie par topic dans OutboxKafkaTemplates
+    @Bean
+    public ProducerFactory<String, byte[]> throughputProducerFactory() {
+        return createRelayProducerFactory(KafkaProducerProfile.THROUGHPUT);
+    }
+
+    @Bean
+    public ProducerFactory<String, byte[]> latencyProducerFactory() {
+        return createRelayProducerFactory(KafkaProducerProfile.LATENCY);
+    }
+
+    @Bean
+    public OutboxKafkaTemplates outboxKafkaTemplates() {
+        Map<KafkaProducerProfile, KafkaTemplate<String, byte[]>> templates = new EnumMap<>(KafkaProducerProfile.class);
+        templates.put(KafkaProducerProfile.THROUGHPUT, new KafkaTemplate<>(throughputProducerFactory()));
+        templates.put(KafkaProducerProfile.LATENCY, new KafkaTemplate<>(latencyProducerFactory()));
+        return new OutboxKafkaTemplates(templates, producerProperties);
+    }
+
+    private ProducerFactory<String, byte[]> createRelayProducerFactory(KafkaProducerProfile profile) {
+        DefaultKafkaProducerFactory<String, byte[]> factory =
+                createProducerFactory(ByteArraySerializer.class, profile, "relay");
+        String prefix = producerProperties.getRelayTransactionIdPrefix();
+        if (prefix != null && !prefix.isBlank()) {
+            factory.setTransactionIdPrefix(prefix + "-" + profile.name().toLowerCase() + "-");
+        }
+        return factory;
+    }
+
+    private <V> DefaultKafkaProducerFactory<String, V> createProducerFactory(
+            Class<?> valueSerializer, KafkaProducerProfile profile, String name) {
+        KafkaProducerProperties.Profile settings = producerProperties.get(profile);
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, settings.getLingerMs());
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, settings.getBatchSize());
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, settings.getCompressionType());
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, settings.getDeliveryTimeoutMs());
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, settings.getMaxBlockMs());
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG,
+                "product-service-" + name + "-" + profile.name().toLowerCase());
+
+        DefaultKafkaProducerFactory<String, V> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(Tag.of("profile", profile.name().toLowerCase()))));
+        return factory;
+    }
+}
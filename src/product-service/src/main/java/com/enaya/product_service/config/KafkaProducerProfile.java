@@ -0,0 +1,6 @@
+package com.enaya.product_service.config;
+
+public enum KafkaProducerProfile {
+    THROUGHPUT,  // Gros lots, compression, linger élevé : relais outbox, flux volumineux
+    LATENCY      // Envoi quasi immédiat : événements attendus en temps réel
+}
@@ -0,0 +1,37 @@
+package com.enaya.product_service.domain.event.category;
+
+import com.enaya.product_service.domain.model.category.Category;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Le chemin complet d'une catégorie (et donc de tous ses descendants) a changé :
+ * déplacement sous un autre parent ou renommage.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
+public class CategoryHierarchyChanged {
+    private final UUID eventId = UUID.randomUUID();
+    private final LocalDateTime occurredOn = LocalDateTime.now();
+    private final UUID categoryId;
+    private final UUID previousParentId;
+    private final UUID newParentId;
+    private final String previousFullPath;
+    private final String newFullPath;
+
+    public static CategoryHierarchyChanged from(Category category, UUID previousParentId, String previousFullPath) {
+        return new CategoryHierarchyChanged(
+                category.getId(),
+                previousParentId,
+                category.getParentId(),
+                previousFullPath,
+                category.getFullPath()
+        );
+    }
+}
@@ -1,14 +1,17 @@
 package com.enaya.product_service.domain.event.category;
 
 import com.enaya.product_service.domain.model.category.Category;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
 public class CategoryUpdated {
     private final UUID eventId = UUID.randomUUID();
     private final LocalDateTime occurredOn = LocalDateTime.now();
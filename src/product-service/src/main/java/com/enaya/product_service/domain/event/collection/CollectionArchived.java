@@ -1,13 +1,16 @@
 package com.enaya.product_service.domain.event.collection;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
 public class CollectionArchived {
     private final UUID eventId = UUID.randomUUID();
     private final LocalDateTime occurredOn = LocalDateTime.now();
@@ -0,0 +1,26 @@
+package com.enaya.product_service.domain.event.collection;
+
+import com.enaya.product_service.domain.model.collection.Collection;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
+public class CollectionProductRemoved {
+    private final UUID eventId = UUID.randomUUID();
+    private final LocalDateTime occurredOn = LocalDateTime.now();
+    private final UUID collectionId;
+    private final UUID productId;
+    // Les collections inactives ne sont pas exposées à la recherche
+    private final boolean collectionActive;
+
+    public static CollectionProductRemoved from(Collection collection, UUID productId) {
+        return new CollectionProductRemoved(collection.getId(), productId, collection.isActive());
+    }
+}
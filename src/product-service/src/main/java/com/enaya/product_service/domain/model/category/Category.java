@@ -1,8 +1,10 @@
 package com.enaya.product_service.domain.model.category;
 
 import com.enaya.product_service.domain.model.category.valueobjects.CategoryMetadata;
+import com.enaya.product_service.infrastructure.persistence.cache.CacheRegions;
 import com.enaya.product_service.infrastructure.persistence.converter.CategoryMetadataConverter;
 import com.enaya.product_service.infrastructure.persistence.converter.UuidListConverter;
+import com.enaya.product_service.infrastructure.persistence.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -10,6 +12,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -22,13 +26,15 @@ import java.util.UUID;
 @Slf4j
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CATEGORY)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -3,12 +3,17 @@ package com.enaya.product_service.domain.model.collection;
 import com.enaya.product_service.domain.model.collection.valueobjects.ImageCollection;
 import com.enaya.product_service.domain.model.collection.valueobjects.PeriodCollection;
 import com.enaya.product_service.domain.model.product.Product;
+import com.enaya.product_service.infrastructure.persistence.cache.CacheRegions;
 import com.enaya.product_service.infrastructure.persistence.converter.UuidListConverter;
+import com.enaya.product_service.infrastructure.persistence.id.TimeOrderedUuid;
+import com.enaya.product_service.infrastructure.persistence.id.TimeOrderedUuids;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,12 +24,14 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "collections")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.COLLECTION)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Collection {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @Column(nullable = false)
@@ -40,6 +47,7 @@ public class Collection {
     private PeriodCollection period;
     
     @ElementCollection(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.COLLECTION_IMAGES)
     @CollectionTable(name = "collection_images", joinColumns = @JoinColumn(name = "collection_id"))
     private List<ImageCollection> images;
     
@@ -87,7 +95,7 @@ public class Collection {
                        PeriodCollection period, List<ImageCollection> images,
                        List<UUID> productIds, boolean active, boolean published,
                        int priority, String metaTitle, String metaDescription) {
-        this.id = id != null ? id : UUID.randomUUID();
+        this.id = id != null ? id : TimeOrderedUuids.next();
         this.name = validateName(name);
         this.description = description;
         this.slug = generateSlug(slug, name);
@@ -0,0 +1,50 @@
+package com.enaya.product_service.domain.model.product;
+
+import com.enaya.product_service.domain.model.product.valueobjects.ProductAttribute;
+import com.enaya.product_service.domain.model.product.valueobjects.ProductImage;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Attributs et images sont indexés par clé stable (nom d'attribut, URL d'image) : Hibernate écrit alors
+ * ligne par ligne (INSERT, UPDATE ou DELETE sur la clé) au lieu de supprimer et réinsérer toute la collection.
+ */
+final class ElementCollections {
+
+    private ElementCollections() {
+    }
+
+    static Map<String, ProductAttribute> attributesByName(List<ProductAttribute> attributes) {
+        Map<String, ProductAttribute> indexed = new LinkedHashMap<>();
+        if (attributes != null) {
+            attributes.forEach(attribute -> indexed.put(attribute.getName(), attribute));
+        }
+        return indexed;
+    }
+
+    static Map<String, ProductImage> imagesByUrl(List<ProductImage> images) {
+        Map<String, ProductImage> indexed = new LinkedHashMap<>();
+        if (images != null) {
+            images.forEach(image -> indexed.put(image.getUrl(), image));
+        }
+        return indexed;
+    }
+
+    /**
+     * Remplace le contenu de {@code target} en ne touchant que les entrées ajoutées, modifiées ou retirées.
+     * Retourne true si quelque chose a changé.
+     */
+    static <V> boolean replace(Map<String, V> target, Map<String, V> incoming) {
+        boolean changed = target.keySet().retainAll(incoming.keySet());
+        for (Map.Entry<String, V> entry : incoming.entrySet()) {
+            if (!Objects.equals(target.get(entry.getKey()), entry.getValue())) {
+                target.put(entry.getKey(), entry.getValue());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
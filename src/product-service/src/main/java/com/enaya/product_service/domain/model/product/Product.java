@@ -2,27 +2,35 @@ package com.enaya.product_service.domain.model.product;
 
 import com.enaya.product_service.domain.model.collection.Collection;
 import com.enaya.product_service.domain.model.product.valueobjects.*;
+import com.enaya.product_service.infrastructure.persistence.cache.CacheRegions;
+import com.enaya.product_service.infrastructure.persistence.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "name", nullable = false, length = 255)
@@ -41,6 +49,7 @@ public class Product {
     private UUID categoryId;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_COLLECTIONS)
     @JoinTable(
         name = "product_collections",
         joinColumns = @JoinColumn(name = "product_id"),
@@ -48,16 +57,28 @@ public class Product {
     )
     private List<Collection> collections = new ArrayList<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_VARIANTS)
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<ProductVariant> variants = new ArrayList<>();
 
+    // Indexés par nom : une modification d'attribut ne réécrit que sa ligne
     @ElementCollection(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_ATTRIBUTES)
     @CollectionTable(name = "product_attributes", joinColumns = @JoinColumn(name = "product_id"))
-    private List<ProductAttribute> attributes = new ArrayList<>();
+    @MapKeyColumn(name = "attribute_name")
+    @AttributeOverride(name = "name", column = @Column(name = "attribute_name", insertable = false, updatable = false))
+    @Getter(AccessLevel.NONE)
+    private Map<String, ProductAttribute> attributes = new LinkedHashMap<>();
 
+    // Indexées par URL
     @ElementCollection(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_IMAGES)
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
-    private List<ProductImage> images = new ArrayList<>();
+    @MapKeyColumn(name = "url")
+    @AttributeOverride(name = "url", column = @Column(name = "url", nullable = false, length = 500, insertable = false, updatable = false))
+    @OrderBy("displayOrder")
+    @Getter(AccessLevel.NONE)
+    private Map<String, ProductImage> images = new LinkedHashMap<>();
 
     @Column(nullable = false)
     private boolean active;
@@ -85,8 +106,8 @@ public class Product {
         this.categoryId = categoryId;
         this.collections = collections != null ? new ArrayList<>(collections) : new ArrayList<>();
         this.variants = variants != null ? new ArrayList<>(variants) : new ArrayList<>();
-        this.attributes = attributes != null ? new ArrayList<>(attributes) : new ArrayList<>();
-        this.images = images != null ? new ArrayList<>(images) : new ArrayList<>();
+        this.attributes = ElementCollections.attributesByName(attributes);
+        this.images = ElementCollections.imagesByUrl(images);
         this.active = active;
         this.creationDate = LocalDateTime.now();
         this.modificationDate = LocalDateTime.now();
@@ -143,8 +164,7 @@ public class Product {
         if (attribute == null) {
             throw new IllegalArgumentException("Attribute cannot be null");
         }
-        this.attributes.removeIf(attr -> attr.getName().equals(attribute.getName()));
-        this.attributes.add(attribute);
+        this.attributes.put(attribute.getName(), attribute);
         this.modificationDate = LocalDateTime.now();
         this.version++;
     }
@@ -153,13 +173,13 @@ public class Product {
         if (image == null) {
             throw new IllegalArgumentException("Image cannot be null");
         }
-        this.images.add(image);
+        this.images.put(image.getUrl(), image);
         this.modificationDate = LocalDateTime.now();
         this.version++;
     }
 
     public void removeImage(String imageUrl) {
-        this.images.removeIf(image -> image.getUrl().equals(imageUrl));
+        this.images.remove(imageUrl);
         this.modificationDate = LocalDateTime.now();
         this.version++;
     }
@@ -211,8 +231,36 @@ public class Product {
         return !this.variants.isEmpty();
     }
 
+    public List<ProductAttribute> getAttributes() {
+        return List.copyOf(this.attributes.values());
+    }
+
+    public List<ProductImage> getImages() {
+        return List.copyOf(this.images.values());
+    }
+
+    /**
+     * Remplace les attributs en n'écrivant que les lignes ajoutées, modifiées ou retirées.
+     */
+    public void replaceAttributes(List<ProductAttribute> attributes) {
+        if (ElementCollections.replace(this.attributes, ElementCollections.attributesByName(attributes))) {
+            this.modificationDate = LocalDateTime.now();
+            this.version++;
+        }
+    }
+
+    /**
+     * Remplace les images en n'écrivant que les lignes ajoutées, modifiées ou retirées.
+     */
+    public void replaceImages(List<ProductImage> images) {
+        if (ElementCollections.replace(this.images, ElementCollections.imagesByUrl(images))) {
+            this.modificationDate = LocalDateTime.now();
+            this.version++;
+        }
+    }
+
     public ProductImage getPrimaryImage() {
-        return this.images.stream()
+        return this.images.values().stream()
                 .min((img1, img2) -> Integer.compare(img1.getDisplayOrder(), img2.getDisplayOrder()))
                 .orElse(null);
     }
@@ -1,24 +1,31 @@
 package com.enaya.product_service.domain.model.product;
 
 import com.enaya.product_service.domain.model.product.valueobjects.*;
+import com.enaya.product_service.infrastructure.persistence.cache.CacheRegions;
+import com.enaya.product_service.infrastructure.persistence.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
 @Table(name = "product_variants")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.VARIANT)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class ProductVariant {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Setter
@@ -39,12 +46,21 @@ public class ProductVariant {
     private JewelryDimensions dimensions;
 
     @ElementCollection(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.VARIANT_ATTRIBUTES)
     @CollectionTable(name = "product_variant_attributes", joinColumns = @JoinColumn(name = "variant_id"))
-    private List<ProductAttribute> specificAttributes = new ArrayList<>();
+    @MapKeyColumn(name = "attribute_name")
+    @AttributeOverride(name = "name", column = @Column(name = "attribute_name", insertable = false, updatable = false))
+    @Getter(AccessLevel.NONE)
+    private Map<String, ProductAttribute> specificAttributes = new LinkedHashMap<>();
 
     @ElementCollection(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.VARIANT_IMAGES)
     @CollectionTable(name = "product_variant_images", joinColumns = @JoinColumn(name = "variant_id"))
-    private List<ProductImage> images = new ArrayList<>();
+    @MapKeyColumn(name = "url")
+    @AttributeOverride(name = "url", column = @Column(name = "url", nullable = false, length = 500, insertable = false, updatable = false))
+    @OrderBy("displayOrder")
+    @Getter(AccessLevel.NONE)
+    private Map<String, ProductImage> images = new LinkedHashMap<>();
 
     @Column(nullable = false)
     private boolean active;
@@ -85,8 +101,8 @@ public class ProductVariant {
         this.sku = sku;
         this.price = price;
         this.dimensions = dimensions;
-        this.specificAttributes = specificAttributes != null ? new ArrayList<>(specificAttributes) : new ArrayList<>();
-        this.images = images != null ? new ArrayList<>(images) : new ArrayList<>();
+        this.specificAttributes = ElementCollections.attributesByName(specificAttributes);
+        this.images = ElementCollections.imagesByUrl(images);
         this.active = active;
         this.stockStatus = stockStatus != null ? stockStatus : StockStatus.IN_STOCK;
         this.rating = rating;
@@ -147,8 +163,7 @@ public class ProductVariant {
         if (attribute == null) {
             throw new IllegalArgumentException("Attribute cannot be null");
         }
-        this.specificAttributes.removeIf(attr -> attr.getName().equals(attribute.getName()));
-        this.specificAttributes.add(attribute);
+        this.specificAttributes.put(attribute.getName(), attribute);
         this.modificationDate = LocalDateTime.now();
         this.version++;
     }
@@ -157,13 +172,13 @@ public class ProductVariant {
         if (image == null) {
             throw new IllegalArgumentException("Image cannot be null");
         }
-        this.images.add(image);
+        this.images.put(image.getUrl(), image);
         this.modificationDate = LocalDateTime.now();
         this.version++;
     }
 
     public void removeImage(String imageUrl) {
-        this.images.removeIf(image -> image.getUrl().equals(imageUrl));
+        this.images.remove(imageUrl);
         this.modificationDate = LocalDateTime.now();
         this.version++;
     }
@@ -194,8 +209,30 @@ public class ProductVariant {
         return this.stockStatus == StockStatus.OUT_OF_STOCK;
     }
 
+    public List<ProductAttribute> getSpecificAttributes() {
+        return List.copyOf(this.specificAttributes.values());
+    }
+
+    public List<ProductImage> getImages() {
+        return List.copyOf(this.images.values());
+    }
+
+    public void replaceSpecificAttributes(List<ProductAttribute> attributes) {
+        if (ElementCollections.replace(this.specificAttributes, ElementCollections.attributesByName(attributes))) {
+            this.modificationDate = LocalDateTime.now();
+            this.version++;
+        }
+    }
+
+    public void replaceImages(List<ProductImage> images) {
+        if (ElementCollections.replace(this.images, ElementCollections.imagesByUrl(images))) {
+            this.modificationDate = LocalDateTime.now();
+            this.version++;
+        }
+    }
+
     public ProductImage getPrimaryImage() {
-        return this.images.stream()
+        return this.images.values().stream()
                 .min((img1, img2) -> Integer.compare(img1.getDisplayOrder(), img2.getDisplayOrder()))
                 .orElse(null);
     }
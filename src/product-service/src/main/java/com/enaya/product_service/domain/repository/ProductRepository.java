@@ -1,5 +1,6 @@
 package com.enaya.product_service.domain.repository;
 
+import com.enaya.product_service.domain.model.collection.Collection;
 import com.enaya.product_service.domain.model.product.Product;
 import com.enaya.product_service.domain.model.product.ProductVariant;
 import com.enaya.product_service.domain.model.product.valueobjects.*;
@@ -45,6 +46,13 @@ public interface ProductRepository {
     // Méthodes de recherche basiques
     List<Product> findByCategoryId(UUID categoryId);
     List<Product> findByCollectionId(UUID collectionId);
+    List<UUID> findIdsByCollectionId(UUID collectionId);
+
+    /**
+     * Reporte l'appartenance à une collection sur les produits (table product_collections),
+     * dans la transaction de l'appelant.
+     */
+    void updateCollectionMembership(Collection collection, Set<UUID> addedProductIds, Set<UUID> removedProductIds);
     List<Product> findByAttributes(List<String> attributeNames, List<String> attributeValues);
     List<Product> findByAttributes(Map<String, String> attributes);
     List<Product> findByAttributesValue(String value);
@@ -59,8 +67,31 @@ public interface ProductRepository {
     List<Product> findByCreatedAtAfter(LocalDateTime since);
     List<Product> findByOrderByViewCountDesc();
     List<Product> findActiveProducts();
-    List<Product> findRelatedProducts(UUID categoryId, Set<ProductAttribute> attributes, UUID excludeProductId, int limit);
 
+    // Statistiques calculées en base (COUNT / GROUP BY), sans charger les produits
+    long countActiveProducts();
+    Map<UUID, Long> countProductsByCategory();
+    Map<UUID, Long> countProductsByCollection();
+
+    /**
+     * Par statut de stock : [nombre de variantes, nombre de produits ayant au moins une variante dans ce statut].
+     */
+    Map<ProductVariant.StockStatus, long[]> countByVariantStockStatus();
+    /**
+     * Ids des produits de la catégorie partageant le plus d'attributs avec le produit, limités à {@code limit}.
+     */
+    List<UUID> findRelatedProductIds(UUID productId, UUID categoryId, int limit);
+
+    /**
+     * Produits liés hydratés en une requête, dans l'ordre du score.
+     */
+    List<Product> findRelatedProducts(UUID productId, UUID categoryId, int limit);
+
+    /**
+     * Recherche filtrée et triée. Sans Elasticsearch, seuls les filtres categoryId, collectionIds et inStock
+     * et les tris de la recherche PostgreSQL sont acceptés ; tout autre filtre ou tri lève une
+     * ProductValidationException.
+     */
     List<Product> searchProductsWithFilters(String query, Map<String, Object> filters,
                                             String sortField, SortOrder sortOrder,
                                             int page, int size);
@@ -101,9 +132,21 @@ public interface ProductRepository {
     Page<Product> findByCreatedAtAfter(LocalDateTime since, Pageable pageable);
     Page<Product> findByOrderByViewCountDesc(Pageable pageable);
     
+    // Mises à jour ensemblistes du stock (sans charger l'agrégat)
+    int updateVariantStockStatus(UUID productId, UUID variantId, ProductVariant.StockStatus status);
+    Optional<Long> findVariantVersion(UUID variantId);
+    int updateVariantsStockStatus(UUID productId, List<UUID> variantIds, ProductVariant.StockStatus status);
+    int updateAllVariantsStockStatus(UUID productId, ProductVariant.StockStatus status);
+    List<VariantStockVersion> findVariantStockVersions(Set<UUID> productIds);
+
     // Vérifications
     boolean existsBySku(String sku);
+    boolean hasVariantsInStock(UUID productId);
 
     Page<Product> findByActiveTrue(Pageable pageable);
     Page<Product> searchSimilar(Product product, String[] fields, Pageable pageable);
+
+    // Statut et version courants d'une variante, pour les mises à jour gardées de l'index
+    record VariantStockVersion(UUID productId, UUID variantId, ProductVariant.StockStatus status, long version) {
+    }
 } 
\ No newline at end of file
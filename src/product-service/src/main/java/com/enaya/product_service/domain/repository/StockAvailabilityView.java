@@ -0,0 +1,27 @@
+package com.enaya.product_service.domain.repository;
+
+import com.enaya.product_service.domain.model.product.ProductVariant;
+
+import java.util.UUID;
+
+/**
+ * Projection en mémoire de la disponibilité des produits.
+ * Tenue à jour par les écritures de l'instance et reconstruite périodiquement : elle peut
+ * retarder sur les changements faits ailleurs et ne sert que d'indication. Les réponses
+ * exposées aux clients (disponibilité, listes en stock, statistiques) viennent de la base ou
+ * de l'index. Tant que isReady() est faux, elle est vide.
+ */
+public interface StockAvailabilityView {
+
+    boolean isReady();
+
+    // Vrai si le produit est connu de la projection (sinon : produit absent ou créé hors projection)
+    boolean contains(UUID productId);
+
+    boolean isProductInStock(UUID productId);
+
+    // null si la variante est inconnue
+    ProductVariant.StockStatus getVariantStatus(UUID variantId);
+
+    long countInStockProducts();
+}
@@ -1,5 +1,6 @@
 package com.enaya.product_service.domain.service;
 
+import com.enaya.product_service.domain.exception.ProductException;
 import com.enaya.product_service.domain.model.product.Product;
 import com.enaya.product_service.domain.model.product.ProductVariant;
 import com.enaya.product_service.domain.model.product.valueobjects.*;
@@ -191,6 +192,13 @@ public class ProductDomainService {
                 .anyMatch(ProductVariant::isInStock);
     }
 
+    /**
+     * Vérifie la disponibilité d'un produit sans charger l'agrégat
+     */
+    public boolean isProductAvailable(UUID productId) {
+        return productRepository.hasVariantsInStock(productId);
+    }
+
     /**
      * Groupe les produits par catégorie
      */
@@ -368,7 +376,10 @@ public class ProductDomainService {
      * Ajoute un produit à une collection
      */
     public Product addProductToCollection(Product product, UUID collectionId) {
-        product.addToCollection(fetchCollectionById(collectionId));
+        Collection collection = fetchCollectionById(collectionId);
+        // Les deux côtés de l'appartenance changent dans la même transaction
+        product.addToCollection(collection);
+        collection.addProduct(product.getId());
         return productRepository.save(product);
     }
 
@@ -376,7 +387,9 @@ public class ProductDomainService {
      * Retire un produit d'une collection
      */
     public Product removeProductFromCollection(Product product, UUID collectionId) {
-        product.removeFromCollection(fetchCollectionById(collectionId));
+        Collection collection = fetchCollectionById(collectionId);
+        product.removeFromCollection(collection);
+        collection.removeProduct(product.getId());
         return productRepository.save(product);
     }
 
@@ -466,11 +479,9 @@ public class ProductDomainService {
      * Recherche des produits liés
      */
     public List<Product> findRelatedProducts(Product product, int limit) {
-        Set<ProductAttribute> attributes = new HashSet<>(product.getAttributes());
         return productRepository.findRelatedProducts(
-                product.getCategoryId(),
-                attributes,
                 product.getId(),
+                product.getCategoryId(),
                 limit
         );
     }
@@ -542,17 +553,36 @@ public class ProductDomainService {
      * Récupère les statistiques des produits
      */
     public Map<String, Object> getProductStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        // Uniquement des agrégats calculés en base : mémoire constante quelle que soit la taille du catalogue
         long totalProducts = productRepository.count();
-        List<Product> activeProducts = productRepository.findActiveProducts();
-        List<Product> inStockProducts = productRepository.findByVariantsStockStatus(ProductVariant.StockStatus.IN_STOCK);
-        
+        long activeProducts = productRepository.countActiveProducts();
+        Map<ProductVariant.StockStatus, long[]> byStockStatus = productRepository.countByVariantStockStatus();
+        long inStockProducts = byStockStatus.getOrDefault(ProductVariant.StockStatus.IN_STOCK, new long[]{0, 0})[1];
+
         stats.put("totalProducts", totalProducts);
-        stats.put("activeProducts", activeProducts.size());
-        stats.put("inStockProducts", inStockProducts.size());
-        stats.put("inactiveProducts", totalProducts - activeProducts.size());
-        
+        stats.put("activeProducts", activeProducts);
+        stats.put("inStockProducts", inStockProducts);
+        stats.put("inactiveProducts", totalProducts - activeProducts);
+
+        Map<String, Long> byCategory = new LinkedHashMap<>();
+        productRepository.countProductsByCategory().forEach((categoryId, count) ->
+                byCategory.put(categoryId != null ? categoryId.toString() : "uncategorized", count));
+        stats.put("productsByCategory", byCategory);
+
+        Map<String, Long> byCollection = new LinkedHashMap<>();
+        productRepository.countProductsByCollection().forEach((collectionId, count) ->
+                byCollection.put(collectionId.toString(), count));
+        stats.put("productsByCollection", byCollection);
+
+        Map<String, Map<String, Long>> stockStatus = new LinkedHashMap<>();
+        for (ProductVariant.StockStatus status : ProductVariant.StockStatus.values()) {
+            long[] counts = byStockStatus.getOrDefault(status, new long[]{0, 0});
+            stockStatus.put(status.name(), Map.of("variants", counts[0], "products", counts[1]));
+        }
+        stats.put("stockStatus", stockStatus);
+
         return stats;
     }
 
@@ -575,7 +605,7 @@ public class ProductDomainService {
         
         // Vérifier si le SKU existe déjà
         if (productRepository.existsBySku(sku)) {
-            throw new IllegalArgumentException("Product with SKU " + sku + " already exists");
+            throw new ProductException.ProductValidationException("Product with SKU " + sku + " already exists");
         }
     }
 
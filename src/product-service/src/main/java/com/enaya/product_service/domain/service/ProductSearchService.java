@@ -107,9 +107,8 @@ public class ProductSearchService {
     @Transactional(readOnly = true)
     public List<Product> findRelated(Product product, int limit) {
         return productRepository.findRelatedProducts(
-            product.getCategoryId(),
-            new HashSet<>(product.getAttributes()),
             product.getId(),
+            product.getCategoryId(),
             limit
         );
     }
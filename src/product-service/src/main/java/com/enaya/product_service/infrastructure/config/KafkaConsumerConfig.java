@@ -1,14 +1,25 @@
 package com.enaya.product_service.infrastructure.config;
 
 import com.enaya.product_service.infrastructure.messaging.dto.StockLevelUpdateEvent;
+import com.enaya.product_service.infrastructure.messaging.metrics.ListenerMetrics;
+import com.enaya.product_service.infrastructure.messaging.metrics.ListenerMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
@@ -16,14 +27,21 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@RequiredArgsConstructor
 public class KafkaConsumerConfig {
 
+    private final ListenerMetrics listenerMetrics;
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${kafka.consumer.stock-level.max-poll-records:500}")
+    private int stockLevelMaxPollRecords;
+
     @Bean
     public ConsumerFactory<String, StockLevelUpdateEvent> stockLevelConsumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -35,12 +53,28 @@ public class KafkaConsumerConfig {
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.enaya.product_service.infrastructure.messaging.dto");
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, stockLevelMaxPollRecords);
 
-        return new DefaultKafkaConsumerFactory<>(
+        DefaultKafkaConsumerFactory<String, StockLevelUpdateEvent> factory = new DefaultKafkaConsumerFactory<>(
             props,
             new StringDeserializer(),
             new ErrorHandlingDeserializer<>(new JsonDeserializer<>(StockLevelUpdateEvent.class))
         );
+        // Métriques du client (kafka.consumer.*), dont records-lag et fetch-rate par partition
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    // Repris par la fabrique de conteneurs par défaut de Spring Boot (listeners sans containerFactory)
+    @Bean
+    public ListenerMetricsInterceptor<Object, Object> defaultListenerMetricsInterceptor() {
+        return new ListenerMetricsInterceptor<>("default", listenerMetrics);
+    }
+
+    // Également repris par la fabrique par défaut : retire le lag des partitions révoquées
+    @Bean
+    public ConsumerAwareRebalanceListener defaultListenerRebalanceListener() {
+        return listenerMetrics.rebalanceListener("default");
     }
 
     @Bean
@@ -50,6 +84,36 @@ public class KafkaConsumerConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(stockLevelConsumerFactory());
         factory.setConcurrency(3);
+        // Un poll = un lot appliqué en une transaction, offsets commités une fois par lot
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setBatchInterceptor(new ListenerMetricsInterceptor<>("stock-level", listenerMetrics));
+        factory.getContainerProperties().setConsumerRebalanceListener(listenerMetrics.rebalanceListener("stock-level"));
+        return factory;
+    }
+
+    // Traitement parallèle sur threads virtuels : acquittements dans le désordre, commit du plus bas offset contigu
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, StockLevelUpdateEvent>
+            stockLevelParallelKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, StockLevelUpdateEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stockLevelConsumerFactory());
+        factory.setConcurrency(3);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        // Le traitement se fait hors du thread consommateur : le listener mesure lui-même sa latence
+        factory.setRecordInterceptor(ListenerMetricsInterceptor.lagOnly("stock-level-parallel", listenerMetrics));
+        factory.getContainerProperties().setConsumerRebalanceListener(
+                listenerMetrics.rebalanceListener("stock-level-parallel"));
         return factory;
     }
-} 
\ No newline at end of file
+
+    // Messages dont les tentatives sont épuisées : publiés sur <topic>-dlt, partition choisie par la clé
+    @Bean
+    @ConditionalOnProperty(name = "kafka.consumer.stock-level.parallel.enabled", havingValue = "true")
+    public DeadLetterPublishingRecoverer stockLevelDeadLetterRecoverer(KafkaTemplate<String, Object> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(record.topic() + "-dlt", -1));
+    }
+}
@@ -1,5 +1,6 @@
 package com.enaya.product_service.infrastructure.messaging;
 
+import com.enaya.product_service.infrastructure.messaging.codec.EventPayloadCodec;
 import com.enaya.product_service.infrastructure.persistence.outbox.OutboxEvent;
 import com.enaya.product_service.infrastructure.persistence.outbox.OutboxEventRepository;
 import com.enaya.product_service.infrastructure.persistence.outbox.OutboxEventStatus;
@@ -16,6 +17,7 @@ import java.util.UUID;
 public class KafkaEventPublisher implements EventPublisher {
 
     private final OutboxEventRepository outboxEventRepository;
+    private final EventPayloadCodec payloadCodec;
 
     @Override
     public void publish(String topic, Object event) {
@@ -23,7 +25,7 @@ public class KafkaEventPublisher implements EventPublisher {
                 .id(UUID.randomUUID())
                 .eventType(event.getClass().getSimpleName())
                 .topic(topic)
-                .payload(event.toString())
+                .payload(payloadCodec.encode(event))
                 .aggregateId(extractAggregateId(event))
                 .aggregateType(event.getClass().getSimpleName())
                 .status(OutboxEventStatus.PENDING)
@@ -31,7 +33,7 @@ public class KafkaEventPublisher implements EventPublisher {
                 .build();
 
         outboxEventRepository.save(outboxEvent);
-        log.info("Event saved to outbox: {}", outboxEvent);
+        log.info("Event {} saved to outbox ({} bytes)", outboxEvent.getEventType(), outboxEvent.getPayload().length);
     }
 
     private String extractAggregateId(Object event) {
@@ -0,0 +1,52 @@
+package com.enaya.product_service.infrastructure.messaging.codec;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+
+/**
+ * Base commune des codecs Jackson : sérialisation par champs uniquement, pour que
+ * les getters calculés des value objects (ex. ProductAttribute#getAsNumber) ne
+ * soient jamais appelés et que les événements fassent un aller-retour exact.
+ * Les constructeurs restent visibles : les records ne se construisent que par
+ * leur constructeur canonique.
+ */
+abstract class AbstractJacksonEventCodec implements EventCodec {
+
+    private final ObjectMapper mapper;
+
+    protected AbstractJacksonEventCodec(JsonFactory factory) {
+        this.mapper = new ObjectMapper(factory);
+        this.mapper.registerModule(new JavaTimeModule());
+        this.mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        this.mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        this.mapper.setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY);
+        this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        this.mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public byte[] encode(Object event) {
+        try {
+            return mapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to encode event " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] data, Class<T> type) {
+        try {
+            return mapper.readValue(data, type);
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to decode payload as " + type.getSimpleName(), e);
+        }
+    }
+}
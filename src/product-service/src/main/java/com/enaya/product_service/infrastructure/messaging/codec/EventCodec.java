@@ -0,0 +1,24 @@
+package com.enaya.product_service.infrastructure.messaging.codec;
+
+/**
+ * Encodage d'un événement en octets, sans framing ni compression.
+ * Le framing (version de schéma, compression) est géré par {@link EventPayloadCodec}.
+ */
+public interface EventCodec {
+
+    /**
+     * Identifiant stocké dans l'en-tête du payload, doit rester stable.
+     */
+    byte id();
+
+    /**
+     * Nom utilisé dans la configuration ({@code outbox.codec.type}).
+     */
+    String name();
+
+    String contentType();
+
+    byte[] encode(Object event);
+
+    <T> T decode(byte[] data, Class<T> type);
+}
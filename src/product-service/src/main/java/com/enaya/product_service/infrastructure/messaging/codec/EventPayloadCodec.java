@@ -0,0 +1,128 @@
+package com.enaya.product_service.infrastructure.messaging.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Payloads des événements de l'outbox et de Kafka.
+ *
+ * Format : [magic][version de schéma][id du codec][flags][corps]. Le corps est
+ * compressé (deflate) lorsqu'il dépasse {@code outbox.codec.compression-threshold}
+ * octets. Le décodage lit l'id du codec dans l'en-tête, on peut donc changer de
+ * codec sans invalider les événements déjà stockés. Les payloads sans en-tête
+ * (anciennes lignes JSON) sont décodés comme du JSON.
+ */
+@Slf4j
+@Component
+public class EventPayloadCodec {
+
+    public static final byte MAGIC = (byte) 0xE7;
+    public static final byte SCHEMA_VERSION = 1;
+    public static final int HEADER_SIZE = 4;
+
+    private static final byte FLAG_DEFLATE = 0x01;
+
+    private final Map<Byte, EventCodec> codecsById = new HashMap<>();
+    private final EventCodec writeCodec;
+    private final int compressionThreshold;
+
+    public EventPayloadCodec(List<EventCodec> codecs,
+                             @Value("${outbox.codec.type:smile}") String codecType,
+                             @Value("${outbox.codec.compression-threshold:1024}") int compressionThreshold) {
+        codecs.forEach(codec -> codecsById.put(codec.id(), codec));
+        this.writeCodec = codecs.stream()
+                .filter(codec -> codec.name().equalsIgnoreCase(codecType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown outbox codec: " + codecType));
+        this.compressionThreshold = compressionThreshold;
+        log.info("Outbox payload codec: {} (compression threshold: {} bytes)",
+                writeCodec.name(), compressionThreshold);
+    }
+
+    public byte[] encode(Object event) {
+        byte[] body = writeCodec.encode(event);
+        byte flags = 0;
+        if (compressionThreshold > 0 && body.length > compressionThreshold) {
+            byte[] compressed = deflate(body);
+            if (compressed.length < body.length) {
+                body = compressed;
+                flags |= FLAG_DEFLATE;
+            }
+        }
+
+        byte[] payload = new byte[HEADER_SIZE + body.length];
+        payload[0] = MAGIC;
+        payload[1] = SCHEMA_VERSION;
+        payload[2] = writeCodec.id();
+        payload[3] = flags;
+        System.arraycopy(body, 0, payload, HEADER_SIZE, body.length);
+        return payload;
+    }
+
+    public <T> T decode(byte[] payload, Class<T> type) {
+        if (!hasHeader(payload)) {
+            return codecsById.get(JsonEventCodec.ID).decode(payload, type);
+        }
+        if (payload[1] > SCHEMA_VERSION) {
+            throw new EventCodecException("Unsupported payload schema version: " + payload[1]);
+        }
+        EventCodec codec = codecsById.get(payload[2]);
+        if (codec == null) {
+            throw new EventCodecException("Unknown codec id in payload header: " + payload[2]);
+        }
+        byte[] body = Arrays.copyOfRange(payload, HEADER_SIZE, payload.length);
+        if ((payload[3] & FLAG_DEFLATE) != 0) {
+            body = inflate(body);
+        }
+        return codec.decode(body, type);
+    }
+
+    public PayloadHeader readHeader(byte[] payload) {
+        if (!hasHeader(payload)) {
+            return new PayloadHeader(0, "application/json", false);
+        }
+        EventCodec codec = codecsById.get(payload[2]);
+        return new PayloadHeader(
+                payload[1],
+                codec != null ? codec.contentType() : "application/octet-stream",
+                (payload[3] & FLAG_DEFLATE) != 0
+        );
+    }
+
+    private boolean hasHeader(byte[] payload) {
+        return payload != null && payload.length >= HEADER_SIZE && payload[0] == MAGIC;
+    }
+
+    private byte[] deflate(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(data);
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to compress event payload", e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] inflate(byte[] data) {
+        try (InputStream inflater = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            return inflater.readAllBytes();
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to decompress event payload", e);
+        }
+    }
+
+    public record PayloadHeader(int schemaVersion, String contentType, boolean compressed) {
+    }
+}
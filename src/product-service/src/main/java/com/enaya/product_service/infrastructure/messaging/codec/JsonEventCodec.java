@@ -0,0 +1,29 @@
+package com.enaya.product_service.infrastructure.messaging.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JsonEventCodec extends AbstractJacksonEventCodec {
+
+    public static final byte ID = 1;
+
+    public JsonEventCodec() {
+        super(new JsonFactory());
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "json";
+    }
+
+    @Override
+    public String contentType() {
+        return "application/json";
+    }
+}
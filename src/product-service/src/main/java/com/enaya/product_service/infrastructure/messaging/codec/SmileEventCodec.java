@@ -0,0 +1,37 @@
+package com.enaya.product_service.infrastructure.messaging.codec;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodage binaire compact (Smile) : noms de champs et chaînes courtes répétées
+ * sont référencés au lieu d'être réécrits, ce qui réduit fortement la taille des
+ * listes d'attributs et d'images.
+ */
+@Component
+public class SmileEventCodec extends AbstractJacksonEventCodec {
+
+    public static final byte ID = 2;
+
+    public SmileEventCodec() {
+        super(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "smile";
+    }
+
+    @Override
+    public String contentType() {
+        return "application/x-jackson-smile";
+    }
+}
@@ -0,0 +1,76 @@
+package com.enaya.product_service.infrastructure.messaging.concurrency;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Exécute les traitements de messages sur des threads virtuels en conservant l'ordre par clé.
+ *
+ * Les tâches d'une même clé sont chaînées (la suivante démarre quand la précédente se
+ * termine) ; des clés différentes s'exécutent en parallèle. Le nombre de tâches en vol
+ * est borné : submit() bloque le thread consommateur quand la fenêtre est pleine, ce qui
+ * ralentit naturellement le poll Kafka.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kafka.consumer.stock-level.parallel.enabled", havingValue = "true")
+public class KeyOrderedVirtualThreadExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final Semaphore window;
+
+    public KeyOrderedVirtualThreadExecutor(@Value("${kafka.consumer.parallel.max-in-flight:256}") int maxInFlight) {
+        this.window = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Planifie task après la dernière tâche de même clé, puis appelle onComplete
+     * avec null en cas de succès ou l'exception levée.
+     */
+    public void submit(String key, Runnable task, Consumer<Throwable> onComplete) {
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight slot", e);
+        }
+
+        CompletableFuture<Void> future = tails.compute(key, (k, tail) ->
+                (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail)
+                        // L'échec d'une tâche ne bloque pas les suivantes de la même clé
+                        .exceptionally(ex -> null)
+                        .thenRunAsync(task, executor));
+
+        future.whenComplete((result, ex) -> {
+            tails.remove(key, future);
+            window.release();
+            onComplete.accept(ex);
+        });
+    }
+
+    public int inFlight() {
+        return tails.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Key-ordered executor did not drain in time, {} keys still in flight", tails.size());
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.enaya.product_service.infrastructure.messaging.listener;
+
+import com.enaya.product_service.domain.event.category.CategoryHierarchyChanged;
+import com.enaya.product_service.domain.model.category.Category;
+import com.enaya.product_service.domain.repository.CategoryRepository;
+import com.enaya.product_service.infrastructure.persistence.elasticsearch.service.ElasticsearchSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Répercute un changement de hiérarchie de catégorie sur l'index produits : seule la catégorie
+ * déplacée ou renommée et ses descendants sont concernés, la réécriture est faite côté Elasticsearch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryHierarchyReindexListener {
+
+    private final CategoryRepository categoryRepository;
+    private final ElasticsearchSyncService elasticsearchSyncService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleCategoryHierarchyChanged(CategoryHierarchyChanged event) {
+        String rootPath = event.getNewFullPath();
+        String descendantPrefix = rootPath + " > ";
+
+        // findDescendants compare les chemins par préfixe : on écarte les catégories sœurs
+        // dont le nom commence par celui de la catégorie modifiée
+        Map<String, String> pathsByCategoryId = new HashMap<>();
+        for (Category category : categoryRepository.findDescendants(event.getCategoryId())) {
+            String fullPath = category.getFullPath();
+            if (category.getId().equals(event.getCategoryId())
+                    || (fullPath != null && fullPath.startsWith(descendantPrefix))) {
+                pathsByCategoryId.put(category.getId().toString(), fullPath);
+            }
+        }
+        pathsByCategoryId.putIfAbsent(event.getCategoryId().toString(), rootPath);
+
+        log.info("Category {} moved from '{}' to '{}', updating indexed paths of {} categories",
+                event.getCategoryId(), event.getPreviousFullPath(), rootPath, pathsByCategoryId.size());
+        elasticsearchSyncService.updateCategoryPaths(pathsByCategoryId);
+    }
+}
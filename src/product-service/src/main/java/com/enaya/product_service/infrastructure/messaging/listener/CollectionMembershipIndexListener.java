@@ -0,0 +1,70 @@
+package com.enaya.product_service.infrastructure.messaging.listener;
+
+import com.enaya.product_service.domain.event.collection.CollectionArchived;
+import com.enaya.product_service.domain.event.collection.CollectionProductAdded;
+import com.enaya.product_service.domain.event.collection.CollectionProductRemoved;
+import com.enaya.product_service.domain.event.collection.CollectionPublished;
+import com.enaya.product_service.domain.repository.ProductRepository;
+import com.enaya.product_service.infrastructure.persistence.elasticsearch.service.ElasticsearchSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applique les changements d'appartenance aux collections sur le champ collectionIds de l'index produits,
+ * uniquement pour les produits concernés.
+ *
+ * L'appartenance est lue dans product_collections, comme l'indexation complète (ProductIndexDto) ;
+ * les collections inactives, exclues de l'index, sont ignorées.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CollectionMembershipIndexListener {
+
+    private final ProductRepository productRepository;
+    private final ElasticsearchSyncService elasticsearchSyncService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleProductAdded(CollectionProductAdded event) {
+        if (!event.isCollectionActive()) {
+            log.debug("Collection {} is inactive, not indexing product {}", event.getCollectionId(), event.getProductId());
+            return;
+        }
+        elasticsearchSyncService.updateCollectionMembership(
+                event.getCollectionId().toString(), List.of(event.getProductId().toString()), true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleProductRemoved(CollectionProductRemoved event) {
+        if (!event.isCollectionActive()) {
+            log.debug("Collection {} is inactive, product {} is not indexed under it", event.getCollectionId(), event.getProductId());
+            return;
+        }
+        elasticsearchSyncService.updateCollectionMembership(
+                event.getCollectionId().toString(), List.of(event.getProductId().toString()), false);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleCollectionPublished(CollectionPublished event) {
+        List<String> productIds = memberProductIds(event.getCollectionId());
+        log.info("Collection {} published, adding it to {} indexed products", event.getCollectionId(), productIds.size());
+        elasticsearchSyncService.updateCollectionMembership(event.getCollectionId().toString(), productIds, true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleCollectionArchived(CollectionArchived event) {
+        List<String> productIds = memberProductIds(event.getCollectionId());
+        log.info("Collection {} archived, removing it from {} indexed products", event.getCollectionId(), productIds.size());
+        elasticsearchSyncService.updateCollectionMembership(event.getCollectionId().toString(), productIds, false);
+    }
+
+    private List<String> memberProductIds(UUID collectionId) {
+        return productRepository.findIdsByCollectionId(collectionId).stream().map(UUID::toString).toList();
+    }
+}
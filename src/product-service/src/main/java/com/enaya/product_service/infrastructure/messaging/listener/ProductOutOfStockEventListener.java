@@ -1,14 +1,28 @@
 package com.enaya.product_service.infrastructure.messaging.listener;
 
 import com.enaya.product_service.application.service.ProductApplicationService;
+import com.enaya.product_service.application.service.StockLevelApplicationService;
 import com.enaya.product_service.domain.event.external.ProductOutOfStockEvent;
+import com.enaya.product_service.domain.model.product.ProductVariant;
+import com.enaya.product_service.infrastructure.messaging.codec.EventPayloadCodec;
+import com.enaya.product_service.infrastructure.persistence.elasticsearch.service.ElasticsearchSyncService;
+import com.enaya.product_service.infrastructure.persistence.inbox.ProcessedMessageStore;
 import com.enaya.product_service.infrastructure.persistence.outbox.OutboxEvent;
 import com.enaya.product_service.infrastructure.persistence.outbox.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -16,42 +30,93 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProductOutOfStockEventListener {
 
     private final ProductApplicationService productApplicationService;
+    private final StockLevelApplicationService stockLevelApplicationService;
+    private final ElasticsearchSyncService elasticsearchSyncService;
     private final OutboxEventRepository outboxEventRepository;
+    private final EventPayloadCodec payloadCodec;
+    private final ProcessedMessageStore processedMessageStore;
+
+    @Value("${kafka.topics.stock-updates}")
+    private String stockUpdatesTopic;
 
     @KafkaListener(
             topics = "out-of-stock-detected",
             groupId = "${spring.kafka.consumer.group-id}"
     )
     @Transactional
-    public void handleOutOfStock(ProductOutOfStockEvent event) {
+    public void handleOutOfStock(@Payload ProductOutOfStockEvent event,
+                                 @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                 @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                 @Header(KafkaHeaders.OFFSET) long offset) {
+        if (!processedMessageStore.claim("out-of-stock", topic, partition, offset)) {
+            log.debug("Skipping already processed out of stock event at {}-{}@{}", topic, partition, offset);
+            return;
+        }
+
         log.info("Received out of stock event for product: {}, variant: {}",
                 event.getProductId(), event.getVariant());
 
-        try {
-            // Save event to outbox
-            OutboxEvent outboxEvent = new OutboxEvent(
-                    "STOCK_OUT_OF_STOCK",
-                    event.toString(),
-                    "out-of-stock-detected",
-                    event.getProductId(),
-                    "Product"
-            );
-            outboxEventRepository.save(outboxEvent);
-
-            // Convert productId and variant to UUID
-            java.util.UUID productId = java.util.UUID.fromString(event.getProductId());
-            java.util.UUID variantId = null;
-            try {
-                variantId = java.util.UUID.fromString(event.getVariant());
-            } catch (Exception e) {
-                log.warn("Variant ID is not a valid UUID: {}", event.getVariant());
+        // Un id produit illisible ne sera jamais traitable : inutile de le relivrer
+        UUID productId = parseUuid(event.getProductId());
+        if (productId == null) {
+            log.warn("Skipping out of stock event with invalid product id {} at {}-{}@{}",
+                    event.getProductId(), topic, partition, offset);
+            return;
+        }
+        UUID variantId = parseUuid(event.getVariant());
+        if (variantId == null && event.getVariant() != null) {
+            log.warn("Variant ID is not a valid UUID: {}", event.getVariant());
+        }
+
+        // Les erreurs de traitement remontent : la transaction, marqueur de déduplication compris,
+        // est annulée et le message est relivré par le gestionnaire d'erreurs du conteneur
+
+        // Un seul événement sortant, publié sur le topic des mises à jour de stock
+        // (le republier sur out-of-stock-detected le ferait reconsommer par ce listener)
+        OutboxEvent outboxEvent = new OutboxEvent(
+                "STOCK_OUT_OF_STOCK",
+                payloadCodec.encode(event),
+                stockUpdatesTopic,
+                event.getProductId(),
+                "Product"
+        );
+        outboxEventRepository.save(outboxEvent);
+
+        // Chemin rapide : un UPDATE ciblé et une mise à jour partielle de l'index après commit
+        if (variantId != null) {
+            Optional<Long> version = stockLevelApplicationService.markVariantOutOfStock(productId, variantId);
+            if (version.isPresent()) {
+                updateIndexAfterCommit(productId, variantId, version.get());
+                return;
             }
+        }
 
-            // Process the event
-            productApplicationService.handleOutOfStock(productId, variantId);
+        // Repli : chargement complet de l'agrégat pour vérifier ses invariants
+        productApplicationService.handleOutOfStock(productId, variantId);
+    }
 
-        } catch (Exception e) {
-            log.error("Error processing out of stock event: {}", e.getMessage(), e);
+    private static UUID parseUuid(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    private void updateIndexAfterCommit(UUID productId, UUID variantId, long version) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                elasticsearchSyncService.updateVariantStockStatus(
+                        productId.toString(),
+                        variantId.toString(),
+                        ProductVariant.StockStatus.OUT_OF_STOCK.name(),
+                        version
+                );
+            }
+        });
+    }
+}
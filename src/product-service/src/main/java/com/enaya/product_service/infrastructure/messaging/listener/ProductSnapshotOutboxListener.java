@@ -0,0 +1,35 @@
+package com.enaya.product_service.infrastructure.messaging.listener;
+
+import com.enaya.product_service.domain.event.product.ProductDeleted;
+import com.enaya.product_service.infrastructure.persistence.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tombstones du topic compacté des snapshots produits, écrites dans l'outbox avant le commit pour être
+ * validées avec la suppression. Les snapshots eux-mêmes sont écrits par ProductSnapshotPublisher.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSnapshotOutboxListener {
+
+    private static final String AGGREGATE_TYPE = "Product";
+
+    private final OutboxService outboxService;
+
+    @Value("${kafka.topics.product-snapshots:product-snapshots}")
+    private String snapshotsTopic;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void handleProductDeleted(ProductDeleted event) {
+        outboxService.createAndSaveTombstone(
+                event.productId().toString(),
+                AGGREGATE_TYPE,
+                "ProductSnapshotDeleted",
+                snapshotsTopic
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package com.enaya.product_service.infrastructure.messaging.listener;
+
+import com.enaya.product_service.application.service.StockLevelApplicationService.StockLevelChange;
+import com.enaya.product_service.domain.model.product.ProductVariant;
+import com.enaya.product_service.domain.repository.ProductRepository.VariantStockVersion;
+import com.enaya.product_service.infrastructure.persistence.elasticsearch.service.ElasticsearchSyncService.VariantStockStatus;
+import com.enaya.product_service.infrastructure.messaging.dto.StockLevelUpdateEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Conversion des messages de niveau de stock, partagée par les listeners par lot et parallèle.
+ */
+@Slf4j
+final class StockLevelChanges {
+
+    private StockLevelChanges() {
+    }
+
+    // null si le message est illisible ou incomplet
+    static StockLevelChange fromRecord(ConsumerRecord<String, StockLevelUpdateEvent> record) {
+        StockLevelUpdateEvent event = record.value();
+        if (event == null || event.getProductId() == null || event.getNewStatus() == null) {
+            log.warn("Skipping invalid stock level record at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return null;
+        }
+        try {
+            UUID productId = UUID.fromString(event.getProductId());
+            UUID variantId = event.getVariantId() != null ? UUID.fromString(event.getVariantId()) : null;
+            ProductVariant.StockStatus status = ProductVariant.StockStatus.valueOf(event.getNewStatus());
+            return new StockLevelChange(productId, variantId, status);
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping malformed stock level event for product {}: {}", event.getProductId(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Format attendu par ElasticsearchSyncService.bulkUpdateVariantStockStatus
+    static Map<String, Map<String, VariantStockStatus>> toIndexStatuses(List<VariantStockVersion> variants) {
+        Map<String, Map<String, VariantStockStatus>> statusesByProduct = new HashMap<>();
+        for (VariantStockVersion variant : variants) {
+            statusesByProduct
+                    .computeIfAbsent(variant.productId().toString(), id -> new HashMap<>())
+                    .put(variant.variantId().toString(),
+                            new VariantStockStatus(variant.status().name(), variant.version()));
+        }
+        return statusesByProduct;
+    }
+}
@@ -0,0 +1,77 @@
+package com.enaya.product_service.infrastructure.messaging.listener;
+
+import com.enaya.product_service.application.service.StockLevelApplicationService;
+import com.enaya.product_service.application.service.StockLevelApplicationService.StockLevelChange;
+import com.enaya.product_service.domain.repository.ProductRepository.VariantStockVersion;
+import com.enaya.product_service.infrastructure.messaging.dto.StockLevelUpdateEvent;
+import com.enaya.product_service.infrastructure.persistence.elasticsearch.service.ElasticsearchSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consomme les mises à jour de niveau de stock par lots (un poll = un lot).
+ *
+ * Le lot est réduit au dernier statut connu par variante, appliqué en requêtes
+ * ensemblistes dans une seule transaction, puis les offsets sont commités une fois
+ * pour tout le lot (AckMode.BATCH) : en cas d'échec, le lot entier est rejoué, ce qui
+ * est sans risque puisque l'application d'un statut est idempotente.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "kafka.consumer.stock-level.parallel.enabled", havingValue = "false", matchIfMissing = true)
+public class StockLevelUpdateBatchListener {
+
+    private final StockLevelApplicationService stockLevelApplicationService;
+    private final ElasticsearchSyncService elasticsearchSyncService;
+
+    @KafkaListener(
+            topics = "${kafka.topics.stock-level-updates:stock-level-updates}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "stockLevelKafkaListenerContainerFactory"
+    )
+    public void handleStockLevelUpdates(List<ConsumerRecord<String, StockLevelUpdateEvent>> records) {
+        List<StockLevelChange> changes = collapse(records);
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        List<VariantStockVersion> updated = stockLevelApplicationService.applyStockLevelChanges(changes);
+
+        // Mise à jour partielle de l'index après commit de la transaction, gardée par version de variante
+        elasticsearchSyncService.bulkUpdateVariantStockStatus(StockLevelChanges.toIndexStatuses(updated));
+
+        log.info("Processed stock level batch: {} records, {} distinct changes", records.size(), changes.size());
+    }
+
+    // Garde le dernier statut par variante ; un changement global efface les changements antérieurs du produit
+    private List<StockLevelChange> collapse(List<ConsumerRecord<String, StockLevelUpdateEvent>> records) {
+        Map<UUID, Map<UUID, StockLevelChange>> latest = new LinkedHashMap<>();
+        for (ConsumerRecord<String, StockLevelUpdateEvent> record : records) {
+            StockLevelChange change = StockLevelChanges.fromRecord(record);
+            if (change == null) {
+                continue;
+            }
+            Map<UUID, StockLevelChange> byVariant = latest.computeIfAbsent(change.productId(), id -> new LinkedHashMap<>());
+            if (change.variantId() == null) {
+                byVariant.clear();
+            }
+            byVariant.remove(change.variantId());
+            byVariant.put(change.variantId(), change);
+        }
+
+        List<StockLevelChange> changes = new ArrayList<>();
+        latest.values().forEach(byVariant -> changes.addAll(byVariant.values()));
+        return changes;
+    }
+}
@@ -0,0 +1,111 @@
+package com.enaya.product_service.infrastructure.messaging.listener;
+
+import com.enaya.product_service.application.service.StockLevelApplicationService;
+import com.enaya.product_service.application.service.StockLevelApplicationService.StockLevelChange;
+import com.enaya.product_service.domain.repository.ProductRepository.VariantStockVersion;
+import com.enaya.product_service.infrastructure.messaging.concurrency.KeyOrderedVirtualThreadExecutor;
+import com.enaya.product_service.infrastructure.messaging.dto.StockLevelUpdateEvent;
+import com.enaya.product_service.infrastructure.messaging.metrics.ListenerMetrics;
+import com.enaya.product_service.infrastructure.persistence.elasticsearch.service.ElasticsearchSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Variante parallèle du listener de niveau de stock (kafka.consumer.stock-level.parallel.enabled=true).
+ *
+ * Chaque message est traité sur un thread virtuel, dans l'ordre pour un même produit.
+ * Les acquittements arrivent dans le désordre ; le conteneur (asyncAcks) ne commite un
+ * offset qu'une fois tous les messages précédents de la partition acquittés. Un message
+ * dont les tentatives sont épuisées est publié sur le topic de lettres mortes avant d'être acquitté.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "kafka.consumer.stock-level.parallel.enabled", havingValue = "true")
+public class StockLevelUpdateParallelListener {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String LISTENER = "stock-level-parallel";
+
+    private final StockLevelApplicationService stockLevelApplicationService;
+    private final ElasticsearchSyncService elasticsearchSyncService;
+    private final KeyOrderedVirtualThreadExecutor executor;
+    private final ListenerMetrics listenerMetrics;
+    private final DeadLetterPublishingRecoverer stockLevelDeadLetterRecoverer;
+
+    @KafkaListener(
+            topics = "${kafka.topics.stock-level-updates:stock-level-updates}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "stockLevelParallelKafkaListenerContainerFactory"
+    )
+    public void handleStockLevelUpdate(ConsumerRecord<String, StockLevelUpdateEvent> record, Acknowledgment ack) {
+        StockLevelChange change = StockLevelChanges.fromRecord(record);
+        if (change == null) {
+            ack.acknowledge();
+            return;
+        }
+
+        long start = System.nanoTime();
+        executor.submit(change.productId().toString(), () -> apply(change, record.topic()), ex -> {
+            // Latence de bout en bout, attente derrière les événements du même produit comprise
+            listenerMetrics.recordProcessed(LISTENER, record.topic(), 1, start, ex == null);
+            if (ex != null && !deadLetter(record, change, ex)) {
+                // Sans acquittement, l'offset de la partition reste bloqué avant ce message :
+                // il est relu après le prochain rééquilibrage ou redémarrage
+                return;
+            }
+            ack.acknowledge();
+        });
+    }
+
+    private boolean deadLetter(ConsumerRecord<String, StockLevelUpdateEvent> record, StockLevelChange change,
+                               Throwable failure) {
+        Throwable unwrapped = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        Exception cause = unwrapped instanceof Exception e ? e : new IllegalStateException(unwrapped);
+        try {
+            stockLevelDeadLetterRecoverer.accept(record, cause);
+            log.error("Stock level update for product {} at {}-{}@{} sent to dead letter topic: {}",
+                    change.productId(), record.topic(), record.partition(), record.offset(), cause.getMessage());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to dead-letter stock level update for product {} at {}-{}@{}, leaving it unacknowledged: {}",
+                    change.productId(), record.topic(), record.partition(), record.offset(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void apply(StockLevelChange change, String topic) {
+        List<StockLevelChange> changes = List.of(change);
+        List<VariantStockVersion> updated;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                updated = stockLevelApplicationService.applyStockLevelChanges(changes);
+                break;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Stock level update for product {} failed (attempt {}): {}",
+                        change.productId(), attempt, e.getMessage());
+                listenerMetrics.recordRetry(LISTENER, topic);
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+        elasticsearchSyncService.bulkUpdateVariantStockStatus(StockLevelChanges.toIndexStatuses(updated));
+    }
+}
@@ -0,0 +1,45 @@
+package com.enaya.product_service.infrastructure.messaging.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Indicateur "consumerLag" : OUT_OF_SERVICE tant qu'une partition dépasse le seuil de lag.
+ * À inclure dans le groupe readiness (management.endpoint.health.group.readiness.include) pour
+ * s'en servir comme signal de mise à l'échelle ou de partition chaude.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsumerLagHealthIndicator implements HealthIndicator {
+
+    private final ListenerMetrics listenerMetrics;
+
+    @Value("${kafka.consumer.lag.readiness-threshold:10000}")
+    private long lagThreshold;
+
+    @Override
+    public Health health() {
+        Map<String, Long> lagging = new TreeMap<>();
+        long maxLag = 0;
+        for (Map.Entry<ListenerMetrics.PartitionKey, Long> entry : listenerMetrics.lagSnapshot().entrySet()) {
+            long lag = entry.getValue();
+            maxLag = Math.max(maxLag, lag);
+            if (lag > lagThreshold) {
+                lagging.put(entry.getKey().toString(), lag);
+            }
+        }
+
+        Health.Builder builder = lagging.isEmpty() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("threshold", lagThreshold)
+                .withDetail("maxLag", maxLag)
+                .withDetail("laggingPartitions", lagging)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.enaya.product_service.infrastructure.messaging.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métriques des listeners Kafka exposées via actuator (/actuator/metrics, /actuator/prometheus).
+ *
+ * kafka.listener.records (débit, via rate() côté Prometheus), kafka.listener.handler (latence, percentiles),
+ * kafka.listener.retries et kafka.listener.lag par partition. Le lag est relevé à chaque poll à partir
+ * de la position locale du consommateur, sans appel au broker, et retiré quand la partition est révoquée.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListenerMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<PartitionKey, LagGauge> lagByPartition = new ConcurrentHashMap<>();
+
+    public void recordProcessed(String listener, String topic, int records, long startNanos, boolean success) {
+        String outcome = success ? "success" : "failure";
+        Timer.builder("kafka.listener.handler")
+                .description("Listener handler latency (one invocation = one record or one batch)")
+                .tag("listener", listener)
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+        Counter.builder("kafka.listener.records")
+                .description("Records handled by listener")
+                .tag("listener", listener)
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(records);
+    }
+
+    public void recordRetry(String listener, String topic) {
+        Counter.builder("kafka.listener.retries")
+                .description("Handler retries performed by listener")
+                .tag("listener", listener)
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void updateLag(String listener, TopicPartition partition, long lag) {
+        lagByPartition.computeIfAbsent(new PartitionKey(listener, partition), key -> {
+            AtomicLong value = new AtomicLong();
+            Gauge gauge = Gauge.builder("kafka.listener.lag", value, AtomicLong::get)
+                    .description("Records between the consumer position and the end of the partition")
+                    .tag("listener", listener)
+                    .tag("topic", partition.topic())
+                    .tag("partition", String.valueOf(partition.partition()))
+                    .register(meterRegistry);
+            return new LagGauge(value, gauge);
+        }).value().set(lag);
+    }
+
+    // Une partition réassignée à une autre instance ne doit pas garder son dernier lag connu
+    public void removeLag(String listener, Collection<TopicPartition> partitions) {
+        partitions.forEach(partition -> {
+            LagGauge removed = lagByPartition.remove(new PartitionKey(listener, partition));
+            if (removed != null) {
+                meterRegistry.remove(removed.gauge());
+            }
+        });
+    }
+
+    /**
+     * Retire le lag des partitions révoquées ou perdues lors d'un rééquilibrage.
+     */
+    public ConsumerAwareRebalanceListener rebalanceListener(String listener) {
+        return new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                removeLag(listener, partitions);
+            }
+
+            @Override
+            public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                removeLag(listener, partitions);
+            }
+        };
+    }
+
+    public Map<PartitionKey, Long> lagSnapshot() {
+        Map<PartitionKey, Long> snapshot = new ConcurrentHashMap<>();
+        lagByPartition.forEach((key, lag) -> snapshot.put(key, lag.value().get()));
+        return snapshot;
+    }
+
+    private record LagGauge(AtomicLong value, Gauge gauge) {
+    }
+
+    public record PartitionKey(String listener, TopicPartition partition) {
+        @Override
+        public String toString() {
+            return listener + ":" + partition;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.enaya.product_service.infrastructure.messaging.metrics;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Intercepteur posé sur les fabriques de conteneurs : mesure chaque invocation du listener
+ * (enregistrement ou lot) et relève le lag des partitions reçues.
+ *
+ * Les intercepteurs s'exécutent sur le thread du consommateur, d'où le ThreadLocal pour l'instant de début.
+ * Pour un listener qui délègue le traitement ailleurs (acquittements asynchrones), seul le lag est relevé :
+ * le listener mesure lui-même son traitement.
+ */
+public class ListenerMetricsInterceptor<K, V> implements RecordInterceptor<K, V>, BatchInterceptor<K, V> {
+
+    private final String listener;
+    private final ListenerMetrics metrics;
+    private final boolean timeHandler;
+    private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+
+    public ListenerMetricsInterceptor(String listener, ListenerMetrics metrics) {
+        this(listener, metrics, true);
+    }
+
+    private ListenerMetricsInterceptor(String listener, ListenerMetrics metrics, boolean timeHandler) {
+        this.listener = listener;
+        this.metrics = metrics;
+        this.timeHandler = timeHandler;
+    }
+
+    public static <K, V> ListenerMetricsInterceptor<K, V> lagOnly(String listener, ListenerMetrics metrics) {
+        return new ListenerMetricsInterceptor<>(listener, metrics, false);
+    }
+
+    @Override
+    public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+        updateLag(consumer, new TopicPartition(record.topic(), record.partition()));
+        startNanos.set(System.nanoTime());
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+        complete(record.topic(), 1, true);
+    }
+
+    @Override
+    public void failure(ConsumerRecord<K, V> record, Exception exception, Consumer<K, V> consumer) {
+        complete(record.topic(), 1, false);
+    }
+
+    @Override
+    public ConsumerRecords<K, V> intercept(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        records.partitions().forEach(partition -> updateLag(consumer, partition));
+        startNanos.set(System.nanoTime());
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        complete(topicOf(records), records.count(), true);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<K, V> records, Exception exception, Consumer<K, V> consumer) {
+        complete(topicOf(records), records.count(), false);
+    }
+
+    private void updateLag(Consumer<K, V> consumer, TopicPartition partition) {
+        consumer.currentLag(partition).ifPresent(lag -> metrics.updateLag(listener, partition, lag));
+    }
+
+    private void complete(String topic, int records, boolean success) {
+        Long start = startNanos.get();
+        startNanos.remove();
+        if (timeHandler && start != null) {
+            metrics.recordProcessed(listener, topic, records, start, success);
+        }
+    }
+
+    private String topicOf(ConsumerRecords<K, V> records) {
+        return records.partitions().stream().findFirst().map(TopicPartition::topic).orElse("unknown");
+    }
+}
@@ -0,0 +1,35 @@
+package com.enaya.product_service.infrastructure.messaging.snapshot;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modèle de lecture en mémoire ; une version plus ancienne n'écrase jamais un snapshot plus récent.
+ */
+public class InMemoryProductSnapshotReadModel implements ProductSnapshotReadModel {
+
+    private final Map<UUID, ProductSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Override
+    public void upsert(ProductSnapshot snapshot) {
+        snapshots.merge(snapshot.productId(), snapshot, (current, candidate) ->
+                current.version() != null && candidate.version() != null && current.version() > candidate.version()
+                        ? current
+                        : candidate);
+    }
+
+    @Override
+    public void remove(UUID productId) {
+        snapshots.remove(productId);
+    }
+
+    public Optional<ProductSnapshot> get(UUID productId) {
+        return Optional.ofNullable(snapshots.get(productId));
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+}
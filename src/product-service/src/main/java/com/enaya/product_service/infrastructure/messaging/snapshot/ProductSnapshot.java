@@ -0,0 +1,57 @@
+package com.enaya.product_service.infrastructure.messaging.snapshot;
+
+import com.enaya.product_service.domain.model.product.Product;
+import com.enaya.product_service.domain.model.product.valueobjects.ProductAttribute;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dernier état connu d'un produit, publié sur le topic compacté des snapshots (clé : id produit).
+ * Volontairement compact : les images et les variantes restent accessibles via l'API.
+ */
+public record ProductSnapshot(
+        UUID productId,
+        String sku,
+        String name,
+        String description,
+        BigDecimal price,
+        String currency,
+        UUID categoryId,
+        List<UUID> collectionIds,
+        Map<String, String> attributes,
+        boolean active,
+        boolean inStock,
+        Long version,
+        LocalDateTime updatedAt
+) {
+    public static ProductSnapshot from(Product product, List<UUID> collectionIds, boolean inStock) {
+        return new ProductSnapshot(
+                product.getId(),
+                product.getSku(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice() != null ? product.getPrice().getAmount() : null,
+                product.getPrice() != null ? String.valueOf(product.getPrice().getCurrency()) : null,
+                product.getCategoryId(),
+                collectionIds,
+                toMap(product.getAttributes()),
+                product.isActive(),
+                inStock,
+                product.getVersion(),
+                product.getModificationDate()
+        );
+    }
+
+    private static Map<String, String> toMap(List<ProductAttribute> attributes) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (attributes != null) {
+            attributes.forEach(attribute -> values.put(attribute.getName(), attribute.getValue()));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,117 @@
+package com.enaya.product_service.infrastructure.messaging.snapshot;
+
+import com.enaya.product_service.domain.model.product.Product;
+import com.enaya.product_service.domain.model.product.ProductVariant;
+import com.enaya.product_service.infrastructure.persistence.jpa.ProductJpaRepository;
+import com.enaya.product_service.infrastructure.persistence.outbox.OutboxService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Alimente le topic compacté des snapshots produits via l'outbox, pour toute écriture qui touche un
+ * produit : agrégat, stock des variantes, appartenance aux collections, import.
+ *
+ * Les produits modifiés sont regroupés par transaction. Juste avant le commit, la session est flushée
+ * (version et dates renseignées) puis un seul snapshot par produit est écrit dans l'outbox, validé avec
+ * la modification. Hors transaction, le snapshot est écrit immédiatement.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSnapshotPublisher {
+
+    private static final String AGGREGATE_TYPE = "Product";
+    private static final int MAX_IDS_PER_QUERY = 10000;
+
+    private final ProductJpaRepository productJpaRepository;
+    private final OutboxService outboxService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${kafka.topics.product-snapshots:product-snapshots}")
+    private String snapshotsTopic;
+
+    public void onProductChanged(UUID productId) {
+        onProductsChanged(List.of(productId));
+    }
+
+    public void onProductsChanged(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(productIds);
+            return;
+        }
+        pendingProductIds().addAll(productIds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<UUID> pendingProductIds() {
+        Set<UUID> pending = (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Set<UUID> productIds = new LinkedHashSet<>();
+        TransactionSynchronizationManager.bindResource(this, productIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                publish(productIds);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ProductSnapshotPublisher.this);
+            }
+        });
+        return productIds;
+    }
+
+    private void publish(Collection<UUID> productIds) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+        }
+        List<UUID> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+
+            // Collections et stock lus en une requête par tranche ; un produit supprimé depuis n'a pas de snapshot
+            Map<UUID, List<UUID>> collectionIds = new HashMap<>();
+            productJpaRepository.findCollectionIdsByProductIdIn(chunk).forEach(row ->
+                    collectionIds.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((UUID) row[1]));
+            Set<UUID> inStock = new HashSet<>(productJpaRepository.findIdsWithVariantInStatus(
+                    chunk, ProductVariant.StockStatus.IN_STOCK));
+
+            for (Product product : productJpaRepository.findWithAttributesByIdIn(chunk)) {
+                outboxService.createAndSaveEvent(
+                        product.getId().toString(),
+                        AGGREGATE_TYPE,
+                        "ProductSnapshot",
+                        snapshotsTopic,
+                        ProductSnapshot.from(product,
+                                collectionIds.getOrDefault(product.getId(), List.of()),
+                                inStock.contains(product.getId()))
+                );
+            }
+        }
+        log.debug("Queued product snapshots for {} products", ids.size());
+    }
+}
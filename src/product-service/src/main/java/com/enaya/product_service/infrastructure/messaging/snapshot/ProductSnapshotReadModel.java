@@ -0,0 +1,13 @@
+package com.enaya.product_service.infrastructure.messaging.snapshot;
+
+import java.util.UUID;
+
+/**
+ * Modèle de lecture local alimenté par la relecture du topic des snapshots produits.
+ */
+public interface ProductSnapshotReadModel {
+
+    void upsert(ProductSnapshot snapshot);
+
+    void remove(UUID productId);
+}
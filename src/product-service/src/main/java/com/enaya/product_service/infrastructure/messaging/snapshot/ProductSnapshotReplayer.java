@@ -0,0 +1,128 @@
+package com.enaya.product_service.infrastructure.messaging.snapshot;
+
+import com.enaya.product_service.infrastructure.messaging.codec.EventPayloadCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reconstruit un modèle de lecture en relisant le topic compacté des snapshots depuis le début.
+ *
+ * Les partitions sont assignées directement (pas de groupe, pas de commit d'offsets) et la lecture
+ * s'arrête aux offsets de fin relevés au démarrage : la relecture se fait à la vitesse du consommateur,
+ * sans dépendre du rééquilibrage d'un groupe.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSnapshotReplayer {
+
+    private static final int MAX_ERROR_SAMPLES = 10;
+
+    private final EventPayloadCodec payloadCodec;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${kafka.topics.product-snapshots:product-snapshots}")
+    private String snapshotsTopic;
+
+    @Value("${kafka.snapshots.replay.max-poll-records:5000}")
+    private int maxPollRecords;
+
+    public ReplayResult replay(ProductSnapshotReadModel readModel) {
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(consumerProperties())) {
+            return replay(consumer, snapshotsTopic, readModel);
+        }
+    }
+
+    // Les enregistrements illisibles ne sont pas ignorés en silence : ils sont comptés comme erreurs,
+    // avec leur position, pour que l'appelant sache que le modèle reconstruit est incomplet
+    ReplayResult replay(Consumer<String, byte[]> consumer, String topic, ProductSnapshotReadModel readModel) {
+        long start = System.nanoTime();
+        long records = 0;
+        long tombstones = 0;
+        long errors = 0;
+        List<String> errorSamples = new ArrayList<>();
+
+        List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+        consumer.assign(partitions);
+        consumer.seekToBeginning(partitions);
+
+        Map<TopicPartition, Long> endOffsets = new HashMap<>(consumer.endOffsets(partitions));
+        endOffsets.entrySet().removeIf(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+
+        while (!endOffsets.isEmpty()) {
+            ConsumerRecords<String, byte[]> batch = consumer.poll(Duration.ofMillis(500));
+            for (ConsumerRecord<String, byte[]> record : batch) {
+                records++;
+                try {
+                    if (record.value() == null) {
+                        readModel.remove(UUID.fromString(record.key()));
+                        tombstones++;
+                    } else {
+                        readModel.upsert(payloadCodec.decode(record.value(), ProductSnapshot.class));
+                    }
+                } catch (Exception e) {
+                    errors++;
+                    String position = record.topic() + "-" + record.partition() + "@" + record.offset();
+                    if (errorSamples.size() < MAX_ERROR_SAMPLES) {
+                        errorSamples.add(position + ": " + e.getMessage());
+                    }
+                    log.error("Unreadable snapshot record {}: {}", position, e.getMessage(), e);
+                }
+            }
+            endOffsets.entrySet().removeIf(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+        }
+
+        long durationMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        if (errors > 0) {
+            log.error("Replayed {} snapshot records from {} in {} ms with {} unreadable records: read model is incomplete",
+                    records, topic, durationMs, errors);
+        } else {
+            log.info("Replayed {} snapshot records ({} tombstones) from {} in {} ms",
+                    records, tombstones, topic, durationMs);
+        }
+        return new ReplayResult(records, tombstones, errors, List.copyOf(errorSamples), durationMs);
+    }
+
+    private Map<String, Object> consumerProperties() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // Le relais peut publier en transaction : on ne lit que ce qui a été validé
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1024 * 1024);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 100);
+        props.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 8 * 1024 * 1024);
+        return props;
+    }
+
+    public record ReplayResult(long records, long tombstones, long errors, List<String> errorSamples, long durationMs) {
+
+        public boolean complete() {
+            return errors == 0;
+        }
+    }
+}
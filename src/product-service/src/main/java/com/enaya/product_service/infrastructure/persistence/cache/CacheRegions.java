@@ -0,0 +1,27 @@
+package com.enaya.product_service.infrastructure.persistence.cache;
+
+/**
+ * Noms des régions du cache de second niveau Hibernate.
+ * Chaque région doit avoir une taille et une durée de vie dans {@link HibernateCacheProperties}.
+ */
+public final class CacheRegions {
+
+    public static final String CATEGORY = "catalog.category";
+    public static final String COLLECTION = "catalog.collection";
+    public static final String COLLECTION_IMAGES = "catalog.collection.images";
+    public static final String PRODUCT = "catalog.product";
+    public static final String PRODUCT_COLLECTIONS = "catalog.product.collections";
+    public static final String PRODUCT_VARIANTS = "catalog.product.variants";
+    public static final String PRODUCT_ATTRIBUTES = "catalog.product.attributes";
+    public static final String PRODUCT_IMAGES = "catalog.product.images";
+    public static final String VARIANT = "catalog.variant";
+    public static final String VARIANT_ATTRIBUTES = "catalog.variant.attributes";
+    public static final String VARIANT_IMAGES = "catalog.variant.images";
+
+    // Régions par défaut du cache de requêtes Hibernate
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
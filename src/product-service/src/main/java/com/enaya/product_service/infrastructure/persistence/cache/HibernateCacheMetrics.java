@@ -0,0 +1,80 @@
+package com.enaya.product_service.infrastructure.persistence.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Statistiques par région du cache de second niveau exposées via actuator :
+ * hibernate.l2cache.requests (result=hit|miss), hibernate.l2cache.puts et hibernate.l2cache.size.
+ * La taille est lue sur le cache Caffeine, Hibernate ne la connaissant pas pour JCache.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "hibernate.l2-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager hibernateCacheManager;
+    private final HibernateCacheProperties properties;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String region : properties.effectiveRegions().keySet()) {
+            Tags tags = Tags.of("region", region);
+            if (statistics.isStatisticsEnabled()) {
+                counter(registry, "hibernate.l2cache.requests", tags.and("result", "hit"), statistics, region,
+                        CacheRegionStatistics::getHitCount, "Second-level cache lookups that found an entry");
+                counter(registry, "hibernate.l2cache.requests", tags.and("result", "miss"), statistics, region,
+                        CacheRegionStatistics::getMissCount, "Second-level cache lookups that missed");
+                counter(registry, "hibernate.l2cache.puts", tags, statistics, region,
+                        CacheRegionStatistics::getPutCount, "Entries put in the second-level cache");
+            }
+            Gauge.builder("hibernate.l2cache.size", hibernateCacheManager, manager -> estimatedSize(manager, region))
+                    .description("Estimated number of entries in the second-level cache region")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+
+    private static void counter(MeterRegistry registry, String name, Tags tags, Statistics statistics, String region,
+                                ToDoubleFunction<CacheRegionStatistics> value, String description) {
+        FunctionCounter.builder(name, statistics, stats -> {
+                    // La région des résultats de requêtes a ses propres statistiques
+                    CacheRegionStatistics regionStatistics = CacheRegions.QUERY_RESULTS.equals(region)
+                            ? stats.getQueryRegionStatistics(region)
+                            : stats.getCacheRegionStatistics(region);
+                    return regionStatistics != null ? value.applyAsDouble(regionStatistics) : 0;
+                })
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static double estimatedSize(CacheManager manager, String region) {
+        Cache<Object, Object> cache = manager.getCache(region);
+        if (cache == null) {
+            return 0;
+        }
+        try {
+            return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+    }
+}
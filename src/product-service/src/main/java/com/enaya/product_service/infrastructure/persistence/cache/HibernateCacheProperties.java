@@ -0,0 +1,72 @@
+package com.enaya.product_service.infrastructure.persistence.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de second niveau (hibernate.l2-cache.*). Les régions non surchargées gardent les valeurs par défaut
+ * ci-dessous ; une durée de vie nulle ou à zéro signifie "sans expiration".
+ */
+@Data
+@ConfigurationProperties(prefix = "hibernate.l2-cache")
+public class HibernateCacheProperties {
+
+    private boolean enabled = true;
+
+    private boolean queryCacheEnabled = true;
+
+    // Nécessaire aux métriques par région
+    private boolean statisticsEnabled = true;
+
+    private Map<String, Region> regions = new HashMap<>();
+
+    public Map<String, Region> effectiveRegions() {
+        Map<String, Region> effective = new LinkedHashMap<>(defaults());
+        regions.forEach((name, override) -> effective.merge(name, override, Region::overriddenBy));
+        return effective;
+    }
+
+    private static Map<String, Region> defaults() {
+        Map<String, Region> defaults = new LinkedHashMap<>();
+        // Arborescence peu volumineuse et rarement modifiée
+        defaults.put(CacheRegions.CATEGORY, Region.of(5_000, Duration.ofHours(1)));
+        defaults.put(CacheRegions.COLLECTION, Region.of(2_000, Duration.ofMinutes(30)));
+        defaults.put(CacheRegions.COLLECTION_IMAGES, Region.of(2_000, Duration.ofMinutes(30)));
+        defaults.put(CacheRegions.PRODUCT, Region.of(20_000, Duration.ofMinutes(10)));
+        defaults.put(CacheRegions.PRODUCT_COLLECTIONS, Region.of(20_000, Duration.ofMinutes(10)));
+        defaults.put(CacheRegions.PRODUCT_VARIANTS, Region.of(20_000, Duration.ofMinutes(10)));
+        defaults.put(CacheRegions.PRODUCT_ATTRIBUTES, Region.of(20_000, Duration.ofMinutes(10)));
+        defaults.put(CacheRegions.PRODUCT_IMAGES, Region.of(20_000, Duration.ofMinutes(10)));
+        // Le statut de stock change souvent : durée de vie courte
+        defaults.put(CacheRegions.VARIANT, Region.of(50_000, Duration.ofMinutes(2)));
+        defaults.put(CacheRegions.VARIANT_ATTRIBUTES, Region.of(50_000, Duration.ofMinutes(10)));
+        defaults.put(CacheRegions.VARIANT_IMAGES, Region.of(50_000, Duration.ofMinutes(10)));
+        defaults.put(CacheRegions.QUERY_RESULTS, Region.of(5_000, Duration.ofMinutes(5)));
+        // Les horodatages ne doivent pas expirer avant les résultats de requêtes qu'ils invalident
+        defaults.put(CacheRegions.UPDATE_TIMESTAMPS, Region.of(10_000, null));
+        return defaults;
+    }
+
+    @Data
+    public static class Region {
+        private Long maxSize;
+        private Duration ttl;
+
+        static Region of(long maxSize, Duration ttl) {
+            Region region = new Region();
+            region.setMaxSize(maxSize);
+            region.setTtl(ttl);
+            return region;
+        }
+
+        Region overriddenBy(Region override) {
+            return of(override.maxSize != null ? override.maxSize : maxSize,
+                    override.ttl != null ? override.ttl : ttl);
+        }
+    }
+}
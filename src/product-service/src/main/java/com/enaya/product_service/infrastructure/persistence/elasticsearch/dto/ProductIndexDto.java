@@ -31,6 +31,8 @@ public class ProductIndexDto {
     private LocalDateTime modificationDate;
     
     private UUID categoryId;
+    // Chemin complet dénormalisé de la catégorie ("Parent > Enfant"), renseigné par le service de synchronisation
+    private String categoryPath;
     private List<UUID> collectionIds;
     private boolean active;
     private long version;
@@ -98,7 +100,9 @@ public class ProductIndexDto {
                 .modificationDate(product.getModificationDate())
                 .categoryId(product.getCategoryId())
                 .collectionIds(product.getCollections() != null ? product.getCollections().stream()
-                        .map(collection -> collection != null ? collection.getId() : null)
+                        // Les collections archivées ne sont plus exposées à la recherche
+                        .filter(collection -> collection != null && collection.isActive())
+                        .map(collection -> collection.getId())
                         .filter(id -> id != null)
                         .collect(Collectors.toList()) : List.of())
                 .active(product.isActive())
@@ -6,19 +6,30 @@ import co.elastic.clients.elasticsearch._types.query_dsl.*;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.enaya.product_service.domain.exception.ProductException;
 import com.enaya.product_service.domain.model.product.Product;
 import com.enaya.product_service.domain.model.product.ProductVariant;
 import com.enaya.product_service.domain.model.product.valueobjects.*;
 import com.enaya.product_service.domain.repository.ProductRepository;
+import com.enaya.product_service.infrastructure.messaging.snapshot.ProductSnapshotPublisher;
 import com.enaya.product_service.infrastructure.persistence.elasticsearch.service.ElasticsearchSyncService;
 import com.enaya.product_service.infrastructure.persistence.jpa.ProductJpaRepository;
+import com.enaya.product_service.infrastructure.persistence.projection.SkuExistenceIndex;
+import com.enaya.product_service.infrastructure.persistence.projection.StockAvailabilityProjection;
+import com.enaya.product_service.infrastructure.persistence.repository.ProductAttributeIndex;
+import com.enaya.product_service.infrastructure.persistence.repository.ProductFullTextSearch;
+import com.enaya.product_service.infrastructure.persistence.repository.SkuConflicts;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.retry.annotation.Backoff;
@@ -30,6 +41,7 @@ import org.springframework.util.Assert;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -40,12 +52,23 @@ import java.util.stream.StreamSupport;
 public class ProductRepositoryImpl implements ProductRepository {
 
     private final ProductJpaRepository jpaRepository;
-    private final ElasticsearchClient elasticsearchClient;
+    // Absent lorsque elasticsearch.enabled=false : la recherche passe alors par PostgreSQL
+    private final ObjectProvider<ElasticsearchClient> elasticsearchClientProvider;
     private final ElasticsearchSyncService elasticsearchSyncService;
     private final ObjectMapper objectMapper;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final ProductSnapshotPublisher productSnapshotPublisher;
+    private final SkuExistenceIndex skuExistenceIndex;
+    private final ProductAttributeIndex productAttributeIndex;
+    private final ProductFullTextSearch productFullTextSearch;
+
+    @Value("${elasticsearch.enabled:true}")
+    private boolean elasticsearchEnabled;
 
     private static final String PRODUCTS_INDEX = "products";
     private static final int MAX_FROM_SIZE = 10000; // Limite pour la pagination from/size
+    private static final int MAX_IDS_PER_QUERY = 10000; // Sous la limite de paramètres JDBC
+    private static final Set<String> DATABASE_FILTERS = Set.of("categoryId", "collectionIds", "inStock");
 
     // Méthodes de base avec cache et retry
     @Override
@@ -57,11 +80,22 @@ public class ProductRepositoryImpl implements ProductRepository {
         if (product.getId() != null) {
             Product savedProduct = jpaRepository.save(product);
             syncWithElasticsearch(savedProduct);
+            stockAvailabilityProjection.onProductSaved(savedProduct);
+            skuExistenceIndex.onProductSaved(savedProduct);
+            productSnapshotPublisher.onProductChanged(savedProduct.getId());
             return savedProduct;
         } else {
             // Si c'est un nouveau produit, on le sauvegarde directement
-            Product savedProduct = jpaRepository.saveAndFlush(product);
+            Product savedProduct;
+            try {
+                savedProduct = jpaRepository.saveAndFlush(product);
+            } catch (DataIntegrityViolationException e) {
+                throw SkuConflicts.translate(e, List.of(product)).orElseThrow(() -> e);
+            }
             syncWithElasticsearch(savedProduct);
+            stockAvailabilityProjection.onProductSaved(savedProduct);
+            skuExistenceIndex.onProductSaved(savedProduct);
+            productSnapshotPublisher.onProductChanged(savedProduct.getId());
             return savedProduct;
         }
     }
@@ -114,6 +148,7 @@ public class ProductRepositoryImpl implements ProductRepository {
         Assert.notNull(id, "ID must not be null");
         jpaRepository.deleteById(id);
         elasticsearchSyncService.deleteProduct(id.toString());
+        stockAvailabilityProjection.onProductDeleted(id);
     }
 
     @Override
@@ -193,6 +228,7 @@ public class ProductRepositoryImpl implements ProductRepository {
         jpaRepository.delete(entity);
         if (entity.getId() != null) {
             elasticsearchSyncService.deleteProduct(entity.getId().toString());
+            stockAvailabilityProjection.onProductDeleted(entity.getId());
         }
     }
 
@@ -223,6 +259,35 @@ public class ProductRepositoryImpl implements ProductRepository {
         return jpaRepository.findByCollectionId(collectionId);
     }
 
+    // Lu sur le primaire : appelé juste après le commit qui a modifié la collection
+    @Override
+    @Transactional
+    public List<UUID> findIdsByCollectionId(UUID collectionId) {
+        return jpaRepository.findIdsByCollectionId(collectionId);
+    }
+
+    // Produits chargés dans le contexte de persistance de l'appelant : la table de jointure et le
+    // cache de second niveau de Product.collections sont mis à jour au commit, sans réindexation
+    @Override
+    @Transactional
+    @CacheEvict(value = "products", allEntries = true)
+    public void updateCollectionMembership(com.enaya.product_service.domain.model.collection.Collection collection,
+                                           Set<UUID> addedProductIds, Set<UUID> removedProductIds) {
+        List<UUID> ids = new ArrayList<>(addedProductIds);
+        ids.addAll(removedProductIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            jpaRepository.findByIdIn(ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size())))
+                    .forEach(product -> {
+                        if (addedProductIds.contains(product.getId())) {
+                            product.addToCollection(collection);
+                        } else {
+                            product.removeFromCollection(collection);
+                        }
+                    });
+        }
+        productSnapshotPublisher.onProductsChanged(ids);
+    }
+
     @Override
     public List<Product> findByAttributes(List<String> attributeNames, List<String> attributeValues) {
         return jpaRepository.findByAttributesNameInAndAttributesValueIn(attributeNames, attributeValues);
@@ -230,7 +295,7 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Override
     public List<Product> findByAttributes(Map<String, String> attributes) {
-        return jpaRepository.findByAttributesMap(attributes);
+        return hydrate(productAttributeIndex.findProductIdsMatchingAll(attributes));
     }
 
     @Override
@@ -298,8 +363,52 @@ public class ProductRepositoryImpl implements ProductRepository {
     }
 
     @Override
-    public List<Product> findRelatedProducts(UUID categoryId, Set<ProductAttribute> attributes, UUID excludeProductId, int limit) {
-        return jpaRepository.findRelatedProducts(categoryId, attributes, excludeProductId, limit);
+    public long countActiveProducts() {
+        return jpaRepository.countByActiveTrue();
+    }
+
+    @Override
+    public Map<UUID, Long> countProductsByCategory() {
+        Map<UUID, Long> counts = new LinkedHashMap<>();
+        jpaRepository.countGroupedByCategory().forEach(row -> counts.put((UUID) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    @Override
+    public Map<UUID, Long> countProductsByCollection() {
+        Map<UUID, Long> counts = new LinkedHashMap<>();
+        jpaRepository.countGroupedByCollection().forEach(row -> counts.put((UUID) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    @Override
+    public Map<ProductVariant.StockStatus, long[]> countByVariantStockStatus() {
+        Map<ProductVariant.StockStatus, long[]> counts = new EnumMap<>(ProductVariant.StockStatus.class);
+        jpaRepository.countGroupedByVariantStockStatus().forEach(row -> counts.put(
+                (ProductVariant.StockStatus) row[0], new long[]{(Long) row[1], (Long) row[2]}));
+        return counts;
+    }
+
+    @Override
+    public List<UUID> findRelatedProductIds(UUID productId, UUID categoryId, int limit) {
+        if (productId == null || categoryId == null || limit <= 0) {
+            return List.of();
+        }
+        return jpaRepository.findRelatedProductIds(productId, categoryId, limit);
+    }
+
+    @Override
+    public List<Product> findRelatedProducts(UUID productId, UUID categoryId, int limit) {
+        List<UUID> ids = findRelatedProductIds(productId, categoryId, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Product> productsById = jpaRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     // Méthodes de recherche Elasticsearch optimisées
@@ -307,6 +416,11 @@ public class ProductRepositoryImpl implements ProductRepository {
     public List<Product> searchProductsWithFilters(String query, Map<String, Object> filters,
                                                    String sortField, SortOrder sortOrder,
                                                    int page, int size) {
+        if (!elasticsearchEnabled) {
+            return searchInDatabase(query, uuidFilter(filters, "categoryId"), uuidFilter(filters, "collectionIds"),
+                    null, null, null, Boolean.parseBoolean(String.valueOf(databaseFilters(filters).get("inStock"))), null,
+                    PageRequest.of(page, size, databaseSort(sortField, sortOrder))).getContent();
+        }
         try {
             if (page * size > MAX_FROM_SIZE) {
                 log.warn("Requested page/size exceeds maximum allowed depth");
@@ -342,7 +456,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                     ))
             );
 
-            SearchResponse<Product> response = elasticsearchClient.search(request, Product.class);
+            SearchResponse<Product> response = elasticsearchClient().search(request, Product.class);
             return response.hits().hits().stream()
                     .map(Hit::source)
                     .collect(Collectors.toList());
@@ -356,6 +470,9 @@ public class ProductRepositoryImpl implements ProductRepository {
     public Page<Product> searchProducts(String query, UUID categoryId, UUID collectionId,
                                         Price minPrice, Price maxPrice, Set<ProductAttribute> attributes,
                                         boolean inStock, LocalDateTime date, Pageable pageable) {
+        if (!elasticsearchEnabled) {
+            return searchInDatabase(query, categoryId, collectionId, minPrice, maxPrice, attributes, inStock, date, pageable);
+        }
         try {
             if (pageable.getOffset() > MAX_FROM_SIZE) {
                 log.warn("Requested page/size exceeds maximum allowed depth");
@@ -382,19 +499,96 @@ public class ProductRepositoryImpl implements ProductRepository {
                     ))
             );
 
-            SearchResponse<Product> response = elasticsearchClient.search(request, Product.class);
-            List<Product> products = response.hits().hits().stream()
+            SearchResponse<Product> response = elasticsearchClient().search(request, Product.class);
+            List<Product> hits = response.hits().hits().stream()
                     .map(Hit::source)
                     .collect(Collectors.toList());
 
             long total = response.hits().total() != null ? response.hits().total().value() : 0;
-            return new PageImpl<>(products, pageable, total);
+            return new PageImpl<>(hits, pageable, total);
         } catch (Exception e) {
             log.error("Error in advanced search", e);
             return Page.empty();
         }
     }
 
+    private Page<Product> searchInDatabase(String query, UUID categoryId, UUID collectionId,
+                                           Price minPrice, Price maxPrice, Set<ProductAttribute> attributes,
+                                           boolean inStock, LocalDateTime date, Pageable pageable) {
+        // Les attributs passent par l'index inversé, comme condition de la requête plein texte
+        ProductAttributeIndex.AttributeFilter attributeFilter = null;
+        if (attributes != null && !attributes.isEmpty()) {
+            Optional<ProductAttributeIndex.AttributeFilter> filter = productAttributeIndex.filterMatchingAll(
+                    attributes.stream().collect(Collectors.toMap(
+                            ProductAttribute::getName, ProductAttribute::getValue, (a, b) -> b)));
+            if (filter.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            attributeFilter = filter.get();
+        }
+
+        ProductFullTextSearch.SearchHits hits = productFullTextSearch.search(query, categoryId, collectionId,
+                minPrice != null ? minPrice.getAmount() : null,
+                maxPrice != null ? maxPrice.getAmount() : null,
+                inStock, date, attributeFilter, pageable);
+
+        return new PageImpl<>(hydrate(hits.ids()), pageable, hits.total());
+    }
+
+    // Charge les produits dans l'ordre des ids, par tranches sous la limite de paramètres JDBC
+    private List<Product> hydrate(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Product> productsById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            jpaRepository.findByIdIn(ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size())))
+                    .forEach(product -> productsById.put(product.getId(), product));
+        }
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Filtres connus de la recherche PostgreSQL : un filtre hors liste est refusé (400) plutôt qu'ignoré
+    private Map<String, Object> databaseFilters(Map<String, Object> filters) {
+        if (filters == null) {
+            return Map.of();
+        }
+        filters.forEach((key, value) -> {
+            if (value != null && !DATABASE_FILTERS.contains(key)) {
+                throw new ProductException.ProductValidationException("Unsupported search filter: " + key
+                        + " (allowed: " + String.join(", ", new TreeSet<>(DATABASE_FILTERS)) + ")");
+            }
+        });
+        return filters;
+    }
+
+    // Le champ est contrôlé par ProductFullTextSearch, qui refuse un tri qu'il ne sait pas appliquer
+    private Sort databaseSort(String sortField, SortOrder sortOrder) {
+        if (sortField == null) {
+            return Sort.unsorted();
+        }
+        return Sort.by(sortOrder == SortOrder.Asc ? Sort.Direction.ASC : Sort.Direction.DESC, sortField);
+    }
+
+    private UUID uuidFilter(Map<String, Object> filters, String key) {
+        Object value = databaseFilters(filters).get(key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+        } catch (IllegalArgumentException e) {
+            throw new ProductException.ProductValidationException("Invalid " + key + " filter: " + value);
+        }
+    }
+
+    private ElasticsearchClient elasticsearchClient() {
+        return elasticsearchClientProvider.getObject();
+    }
+
     private BoolQuery.Builder buildSearchQuery(String query, UUID categoryId, UUID collectionId,
                                                Price minPrice, Price maxPrice, Set<ProductAttribute> attributes,
                                                boolean inStock, LocalDateTime date) {
@@ -491,7 +685,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                     )))
             );
 
-            SearchResponse<Product> response = elasticsearchClient.search(request, Product.class);
+            SearchResponse<Product> response = elasticsearchClient().search(request, Product.class);
             return response.hits().hits().stream()
                     .map(Hit::source)
                     .collect(Collectors.toList());
@@ -513,7 +707,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                     .minScore((double) minScore)
             );
 
-            SearchResponse<Product> response = elasticsearchClient.search(request, Product.class);
+            SearchResponse<Product> response = elasticsearchClient().search(request, Product.class);
             return response.hits().hits().stream()
                     .map(Hit::source)
                     .collect(Collectors.toList());
@@ -539,7 +733,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                     )
             );
 
-            SearchResponse<Product> response = elasticsearchClient.search(request, Product.class);
+            SearchResponse<Product> response = elasticsearchClient().search(request, Product.class);
             return response.hits().hits().stream()
                     .map(Hit::source)
                     .collect(Collectors.toList());
@@ -564,7 +758,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                     )
             );
 
-            SearchResponse<Product> response = elasticsearchClient.search(request, Product.class);
+            SearchResponse<Product> response = elasticsearchClient().search(request, Product.class);
             return searchProductsWithFilters(query, Collections.emptyMap(), null, null, 0, 50);
         } catch (Exception e) {
             log.error("Error getting category aggregation", e);
@@ -586,7 +780,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                     )
             );
 
-            SearchResponse<Product> response = elasticsearchClient.search(request, Product.class);
+            SearchResponse<Product> response = elasticsearchClient().search(request, Product.class);
             return searchProductsWithFilters(query, Collections.emptyMap(), "variants.price.amount", SortOrder.Asc, 0, 50);
         } catch (Exception e) {
             log.error("Error getting price aggregation", e);
@@ -613,7 +807,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                     )
             );
 
-            SearchResponse<Product> response = elasticsearchClient.search(request, Product.class);
+            SearchResponse<Product> response = elasticsearchClient().search(request, Product.class);
             return searchProductsWithFilters(query, Collections.emptyMap(), null, null, 0, 50);
         } catch (Exception e) {
             log.error("Error getting attributes aggregation", e);
@@ -644,7 +838,14 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Override
     public Page<Product> findByAttributes(Map<String, String> attributes, Pageable pageable) {
-        return jpaRepository.findByAttributesMap(attributes, pageable);
+        // Intersection, tri et pagination en SQL ; seule la page est chargée
+        Optional<ProductAttributeIndex.AttributeFilter> filter = productAttributeIndex.filterMatchingAll(attributes);
+        if (filter.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        ProductFullTextSearch.SearchHits hits = productFullTextSearch.search(null, null, null, null, null,
+                false, null, filter.get(), pageable);
+        return new PageImpl<>(hydrate(hits.ids()), pageable, hits.total());
     }
 
     @Override
@@ -707,10 +908,75 @@ public class ProductRepositoryImpl implements ProductRepository {
         return jpaRepository.findAllByOrderByModificationDateDesc(pageable);
     }
 
+    // Mises à jour ensemblistes du stock : l'index ES est mis à jour séparément par l'appelant
+    @Override
+    @CacheEvict(value = "products", allEntries = true)
+    public int updateVariantStockStatus(UUID productId, UUID variantId, ProductVariant.StockStatus status) {
+        int updated = jpaRepository.updateVariantStockStatus(productId, variantId, status);
+        if (updated > 0) {
+            stockAvailabilityProjection.onVariantStatusChanged(productId, variantId, status);
+            productSnapshotPublisher.onProductChanged(productId);
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVariantVersion(UUID variantId) {
+        return jpaRepository.findVariantVersion(variantId);
+    }
+
+    @Override
+    @CacheEvict(value = "products", allEntries = true)
+    public int updateVariantsStockStatus(UUID productId, List<UUID> variantIds, ProductVariant.StockStatus status) {
+        int updated = jpaRepository.updateVariantsStockStatus(productId, variantIds, status);
+        if (updated > 0) {
+            // Les ids n'appartenant pas au produit ne sont pas mis à jour en base : on ne les ajoute pas
+            if (updated == variantIds.size()) {
+                variantIds.forEach(variantId ->
+                        stockAvailabilityProjection.onVariantStatusChanged(productId, variantId, status));
+            } else {
+                jpaRepository.findVariantsByStockStatus(productId, status).forEach(variant ->
+                        stockAvailabilityProjection.onVariantStatusChanged(productId, variant.getId(), status));
+            }
+            productSnapshotPublisher.onProductChanged(productId);
+        }
+        return updated;
+    }
+
+    @Override
+    @CacheEvict(value = "products", allEntries = true)
+    public int updateAllVariantsStockStatus(UUID productId, ProductVariant.StockStatus status) {
+        int updated = jpaRepository.updateAllVariantsStockStatus(productId, status);
+        if (updated > 0) {
+            stockAvailabilityProjection.onAllVariantsStatusChanged(productId, status);
+            productSnapshotPublisher.onProductChanged(productId);
+        }
+        return updated;
+    }
+
+    @Override
+    public List<VariantStockVersion> findVariantStockVersions(Set<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findVariantStockVersions(productIds).stream()
+                .map(row -> new VariantStockVersion(
+                        (UUID) row[0], (UUID) row[1], (ProductVariant.StockStatus) row[2],
+                        row[3] != null ? (Long) row[3] : 0L))
+                .toList();
+    }
+
     // Vérifications
     @Override
     public boolean existsBySku(String sku) {
-        return jpaRepository.existsBySku(sku);
+        return skuExistenceIndex.productSkuExists(sku, jpaRepository::existsBySku);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasVariantsInStock(UUID productId) {
+        return jpaRepository.hasVariantsInStock(productId);
     }
 
     @Override
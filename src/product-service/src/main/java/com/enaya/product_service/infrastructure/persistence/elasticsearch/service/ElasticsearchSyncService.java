@@ -3,6 +3,7 @@ package com.enaya.product_service.infrastructure.persistence.elasticsearch.servi
 import com.enaya.product_service.domain.model.product.Product;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ElasticsearchSyncService {
     
@@ -11,4 +12,31 @@ public interface ElasticsearchSyncService {
     void deleteProduct(String productId);
     
     void bulkIndexProducts(List<Product> products);
-} 
\ No newline at end of file
+
+    /**
+     * Met à jour le stockStatus des variantes indexées sans réindexer les produits, avec la même
+     * garde de version que updateVariantStockStatus. Clé externe : id produit ; clé interne : id variante.
+     */
+    void bulkUpdateVariantStockStatus(Map<String, Map<String, VariantStockStatus>> statusesByProduct);
+
+    /**
+     * Met à jour le stockStatus d'une variante indexée si la version fournie est plus récente
+     * que celle du document : une mise à jour arrivée en retard n'écrase pas un état plus récent.
+     */
+    void updateVariantStockStatus(String productId, String variantId, String status, long variantVersion);
+
+    /**
+     * Réécrit categoryPath sur tous les produits indexés des catégories données, côté Elasticsearch
+     * (_update_by_query limité en débit). Clé : id catégorie ; valeur : nouveau chemin complet.
+     */
+    void updateCategoryPaths(Map<String, String> pathsByCategoryId);
+
+    /**
+     * Ajoute ou retire une collection de collectionIds sur les seuls produits indiqués,
+     * par mises à jour scriptées en bulk (sans réindexer les documents).
+     */
+    void updateCollectionMembership(String collectionId, List<String> productIds, boolean member);
+
+    record VariantStockStatus(String status, long version) {
+    }
+}
@@ -1,27 +1,42 @@
 package com.enaya.product_service.infrastructure.persistence.elasticsearch.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Script;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.DeleteRequest;
 import co.elastic.clients.elasticsearch.core.DeleteResponse;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
+import co.elastic.clients.elasticsearch.core.UpdateByQueryResponse;
+import co.elastic.clients.json.JsonData;
+import com.enaya.product_service.domain.model.category.Category;
 import com.enaya.product_service.domain.model.product.Product;
 import com.enaya.product_service.infrastructure.persistence.elasticsearch.dto.ProductIndexDto;
+import com.enaya.product_service.infrastructure.persistence.jpa.CategoryJpaRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,7 +46,55 @@ public class ElasticsearchSyncServiceImpl implements ElasticsearchSyncService {
 
     private final ElasticsearchClient elasticsearchClient;
     private final ObjectMapper elasticsearchObjectMapper;
+    private final CategoryJpaRepository categoryJpaRepository;
     private static final String PRODUCTS_INDEX = "products";
+    // Limite du nombre de termes d'une requête terms côté Elasticsearch (index.max_terms_count)
+    private static final int MAX_TERMS_PER_QUERY = 10000;
+
+    // Ne touche que variants[].stockStatus et version, et seulement si la version fournie est plus récente ;
+    // noop si rien ne change pour ne pas créer de nouvelle version du document
+    private static final String VARIANT_STOCK_STATUS_SCRIPT =
+        "if (ctx._source.variants == null) { ctx.op = 'noop'; return; } " +
+        "boolean changed = false; " +
+        "for (def v : ctx._source.variants) { " +
+        "  def update = params.statuses.get(v.id); " +
+        "  if (update != null && (v.version == null || v.version < update.version)) { " +
+        "    v.stockStatus = update.status; v.version = update.version; changed = true; " +
+        "  } " +
+        "} " +
+        "if (!changed) { ctx.op = 'noop'; }";
+
+    private static final String VERSIONED_VARIANT_STOCK_STATUS_SCRIPT =
+        "if (ctx._source.variants == null) { ctx.op = 'noop'; return; } " +
+        "boolean changed = false; " +
+        "for (def v : ctx._source.variants) { " +
+        "  if (v.id == params.variantId && (v.version == null || v.version < params.version)) { " +
+        "    v.stockStatus = params.status; v.version = params.version; changed = true; " +
+        "  } " +
+        "} " +
+        "if (!changed) { ctx.op = 'noop'; }";
+
+    private static final String CATEGORY_PATH_SCRIPT =
+        "def path = params.paths.get(ctx._source.categoryId); " +
+        "if (path == null || path == ctx._source.categoryPath) { ctx.op = 'noop'; } " +
+        "else { ctx._source.categoryPath = path; }";
+
+    private static final String ADD_COLLECTION_SCRIPT =
+        "if (ctx._source.collectionIds == null) { ctx._source.collectionIds = []; } " +
+        "if (ctx._source.collectionIds.contains(params.collectionId)) { ctx.op = 'noop'; } " +
+        "else { ctx._source.collectionIds.add(params.collectionId); }";
+
+    private static final String REMOVE_COLLECTION_SCRIPT =
+        "if (ctx._source.collectionIds == null " +
+        "    || !ctx._source.collectionIds.removeIf(id -> id == params.collectionId)) { ctx.op = 'noop'; }";
+
+    @Value("${elasticsearch.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    // Débit de réécriture des documents, appliqué côté Elasticsearch pour ne pas saturer le cluster
+    @Value("${elasticsearch.reindex.requests-per-second:500}")
+    private float reindexRequestsPerSecond;
+
     private final Queue<SyncOperation> failedOperations = new ConcurrentLinkedQueue<>();
 
     @Override
@@ -45,7 +108,7 @@ public class ElasticsearchSyncServiceImpl implements ElasticsearchSyncService {
                 product.getCollections().size();
             }
             
-            ProductIndexDto productIndexDto = ProductIndexDto.fromProduct(product);
+            ProductIndexDto productIndexDto = toIndexDto(product);
             
             IndexResponse response = elasticsearchClient.index(i -> i
                 .index(PRODUCTS_INDEX)
@@ -99,6 +162,7 @@ public class ElasticsearchSyncServiceImpl implements ElasticsearchSyncService {
         try {
             log.info("Starting bulk indexing of {} products", products.size());
             
+            Map<UUID, String> categoryPaths = loadCategoryPaths(products);
             BulkRequest.Builder br = new BulkRequest.Builder();
             products.forEach(product -> {
                 try {
@@ -106,7 +170,7 @@ public class ElasticsearchSyncServiceImpl implements ElasticsearchSyncService {
                     if (product.getCollections() != null) {
                         product.getCollections().size();
                     }
-                    ProductIndexDto productIndexDto = ProductIndexDto.fromProduct(product);
+                    ProductIndexDto productIndexDto = toIndexDto(product, categoryPaths);
                     
                     br.operations(op -> op
                         .index(idx -> idx
@@ -138,13 +202,201 @@ public class ElasticsearchSyncServiceImpl implements ElasticsearchSyncService {
         }
     }
 
+    @Override
+    public void bulkUpdateVariantStockStatus(Map<String, Map<String, VariantStockStatus>> statusesByProduct) {
+        if (statusesByProduct == null || statusesByProduct.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkRequest.Builder br = new BulkRequest.Builder();
+            statusesByProduct.forEach((productId, statuses) -> {
+                Map<String, Map<String, Object>> params = new HashMap<>();
+                statuses.forEach((variantId, update) ->
+                    params.put(variantId, Map.of("status", update.status(), "version", update.version())));
+                Script script = Script.of(sc -> sc
+                    .source(src -> src.scriptString(VARIANT_STOCK_STATUS_SCRIPT))
+                    .params("statuses", JsonData.of(params))
+                );
+                br.operations(op -> op
+                    .update(u -> u
+                        .index(PRODUCTS_INDEX)
+                        .id(productId)
+                        .retryOnConflict(3)
+                        .action(a -> a.script(script))
+                    )
+                );
+            });
+
+            BulkResponse response = elasticsearchClient.bulk(br.build());
+            if (response.errors()) {
+                // Les documents en échec seront corrigés par la synchronisation périodique
+                log.error("Stock status bulk update had failures: {}", response.items().stream()
+                    .filter(item -> item.error() != null)
+                    .map(item -> String.format("Item %s failed: %s", item.id(), item.error().reason()))
+                    .toList());
+            } else {
+                log.info("Updated stock status of {} indexed products", statusesByProduct.size());
+            }
+        } catch (Exception e) {
+            log.error("Error during stock status bulk update: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void updateVariantStockStatus(String productId, String variantId, String status, long variantVersion) {
+        try {
+            elasticsearchClient.update(u -> u
+                .index(PRODUCTS_INDEX)
+                .id(productId)
+                .retryOnConflict(3)
+                .script(sc -> sc
+                    .source(src -> src.scriptString(VERSIONED_VARIANT_STOCK_STATUS_SCRIPT))
+                    .params("variantId", JsonData.of(variantId))
+                    .params("status", JsonData.of(status))
+                    .params("version", JsonData.of(variantVersion))
+                ),
+                ProductIndexDto.class
+            );
+            log.debug("Variant {} stock status set to {} in index (version {})", variantId, status, variantVersion);
+        } catch (Exception e) {
+            // Rattrapé par la synchronisation périodique ; ne doit pas faire échouer le traitement du stock
+            log.error("Error updating stock status of variant {} in index: {}", variantId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void updateCategoryPaths(Map<String, String> pathsByCategoryId) {
+        if (pathsByCategoryId == null || pathsByCategoryId.isEmpty()) {
+            return;
+        }
+
+        List<String> categoryIds = new ArrayList<>(pathsByCategoryId.keySet());
+        for (int from = 0; from < categoryIds.size(); from += MAX_TERMS_PER_QUERY) {
+            List<String> chunk = categoryIds.subList(from, Math.min(from + MAX_TERMS_PER_QUERY, categoryIds.size()));
+            Map<String, String> paths = chunk.stream()
+                .collect(Collectors.toMap(Function.identity(), pathsByCategoryId::get));
+            List<FieldValue> terms = chunk.stream().map(FieldValue::of).toList();
+
+            try {
+                // Tâche asynchrone limitée en débit : les conflits de version sont ignorés,
+                // le document concurrent étant réindexé avec le chemin à jour
+                UpdateByQueryResponse response = elasticsearchClient.updateByQuery(u -> u
+                    .index(PRODUCTS_INDEX)
+                    .query(q -> q.terms(t -> t
+                        .field("categoryId")
+                        .terms(tf -> tf.value(terms))
+                    ))
+                    .script(sc -> sc
+                        .source(src -> src.scriptString(CATEGORY_PATH_SCRIPT))
+                        .params("paths", JsonData.of(paths))
+                    )
+                    .conflicts(Conflicts.Proceed)
+                    .requestsPerSecond(reindexRequestsPerSecond)
+                    .waitForCompletion(false)
+                );
+                log.info("Category path update started for {} categories, task: {}", chunk.size(), response.task());
+            } catch (Exception e) {
+                log.error("Error starting category path update for {} categories: {}", chunk.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void updateCollectionMembership(String collectionId, List<String> productIds, boolean member) {
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+
+        Script script = Script.of(sc -> sc
+            .source(src -> src.scriptString(member ? ADD_COLLECTION_SCRIPT : REMOVE_COLLECTION_SCRIPT))
+            .params("collectionId", JsonData.of(collectionId))
+        );
+
+        for (int from = 0; from < productIds.size(); from += bulkChunkSize) {
+            List<String> chunk = productIds.subList(from, Math.min(from + bulkChunkSize, productIds.size()));
+            try {
+                BulkRequest.Builder br = new BulkRequest.Builder();
+                chunk.forEach(productId -> br.operations(op -> op
+                    .update(u -> u
+                        .index(PRODUCTS_INDEX)
+                        .id(productId)
+                        .retryOnConflict(3)
+                        .action(a -> a.script(script))
+                    )
+                ));
+
+                BulkResponse response = elasticsearchClient.bulk(br.build());
+                if (response.errors()) {
+                    // Un produit pas encore indexé recevra ses collections lors de son indexation
+                    List<String> failures = response.items().stream()
+                        .filter(item -> item.error() != null)
+                        .filter(item -> !"document_missing_exception".equals(item.error().type()))
+                        .map(item -> String.format("Item %s failed: %s", item.id(), item.error().reason()))
+                        .toList();
+                    if (!failures.isEmpty()) {
+                        log.error("Collection {} membership update had failures: {}", collectionId, failures);
+                    }
+                }
+                log.debug("Collection {} {} on {} indexed products", collectionId, member ? "added" : "removed", chunk.size());
+            } catch (Exception e) {
+                log.error("Error updating collection {} membership of {} products: {}",
+                    collectionId, chunk.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private ProductIndexDto toIndexDto(Product product) {
+        ProductIndexDto productIndexDto = ProductIndexDto.fromProduct(product);
+        if (product.getCategoryId() != null) {
+            categoryJpaRepository.findById(product.getCategoryId())
+                .map(Category::getFullPath)
+                .ifPresent(productIndexDto::setCategoryPath);
+        }
+        return productIndexDto;
+    }
+
+    private ProductIndexDto toIndexDto(Product product, Map<UUID, String> categoryPaths) {
+        ProductIndexDto productIndexDto = ProductIndexDto.fromProduct(product);
+        productIndexDto.setCategoryPath(categoryPaths.get(product.getCategoryId()));
+        return productIndexDto;
+    }
+
+    // Un seul aller-retour pour les catégories de tout le lot
+    private Map<UUID, String> loadCategoryPaths(List<Product> products) {
+        List<UUID> categoryIds = products.stream()
+            .map(Product::getCategoryId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        if (categoryIds.isEmpty()) {
+            return Map.of();
+        }
+        return categoryJpaRepository.findAllById(categoryIds).stream()
+            .filter(category -> category.getFullPath() != null)
+            .collect(Collectors.toMap(Category::getId, Category::getFullPath));
+    }
+
     @Scheduled(fixedRate = 300000) // toutes les 5 minutes
     public void retryFailedOperations() {
         log.info("Starting retry of failed operations. Queue size: {}", failedOperations.size());
-        while (!failedOperations.isEmpty()) {
-            SyncOperation operation = failedOperations.poll();
+        List<SyncOperation> operations = new ArrayList<>();
+        SyncOperation polled;
+        while ((polled = failedOperations.poll()) != null) {
+            operations.add(polled);
+        }
+        if (operations.isEmpty()) {
+            return;
+        }
+
+        // Catégories de toutes les réindexations chargées en une fois
+        Map<UUID, String> categoryPaths = loadCategoryPaths(operations.stream()
+            .filter(operation -> operation.type == SyncOperationType.INDEX)
+            .map(operation -> (Product) operation.data)
+            .toList());
+        for (SyncOperation operation : operations) {
             try {
-                operation.execute(elasticsearchClient, elasticsearchObjectMapper);
+                operation.execute(elasticsearchClient, product -> toIndexDto(product, categoryPaths));
                 log.info("Successfully retried operation: {}", operation);
             } catch (Exception e) {
                 log.error("Failed to retry operation {}: {}", operation, e.getMessage());
@@ -166,7 +418,7 @@ public class ElasticsearchSyncServiceImpl implements ElasticsearchSyncService {
             this.data = data;
         }
 
-        public void execute(ElasticsearchClient client, ObjectMapper mapper) throws Exception {
+        public void execute(ElasticsearchClient client, Function<Product, ProductIndexDto> toIndexDto) throws Exception {
             switch (type) {
                 case INDEX:
                     Product product = (Product) data;
@@ -174,7 +426,7 @@ public class ElasticsearchSyncServiceImpl implements ElasticsearchSyncService {
                     if (product.getCollections() != null) {
                         product.getCollections().size();
                     }
-                    ProductIndexDto productIndexDto = ProductIndexDto.fromProduct(product);
+                    ProductIndexDto productIndexDto = toIndexDto.apply(product);
                     client.index(i -> i
                         .index(PRODUCTS_INDEX)
                         .id(product.getId().toString())
@@ -6,6 +6,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -26,4 +27,24 @@ public class NoOpElasticsearchSyncService implements ElasticsearchSyncService {
     public void bulkIndexProducts(List<Product> products) {
         log.debug("Elasticsearch is disabled - skipping bulk indexing for {} products", products.size());
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void bulkUpdateVariantStockStatus(Map<String, Map<String, VariantStockStatus>> statusesByProduct) {
+        log.debug("Elasticsearch is disabled - skipping stock status update for {} products", statusesByProduct.size());
+    }
+
+    @Override
+    public void updateVariantStockStatus(String productId, String variantId, String status, long variantVersion) {
+        log.debug("Elasticsearch is disabled - skipping stock status update for variant: {}", variantId);
+    }
+
+    @Override
+    public void updateCategoryPaths(Map<String, String> pathsByCategoryId) {
+        log.debug("Elasticsearch is disabled - skipping category path update for {} categories", pathsByCategoryId.size());
+    }
+
+    @Override
+    public void updateCollectionMembership(String collectionId, List<String> productIds, boolean member) {
+        log.debug("Elasticsearch is disabled - skipping collection {} membership update for {} products", collectionId, productIds.size());
+    }
+}
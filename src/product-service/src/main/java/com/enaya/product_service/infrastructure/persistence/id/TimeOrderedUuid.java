@@ -0,0 +1,18 @@
+package com.enaya.product_service.infrastructure.persistence.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifiant UUID généré par {@link TimeOrderedUuidGenerator} (UUIDv7, croissant dans le temps).
+ * Remplace @GeneratedValue(strategy = GenerationType.UUID) sur une colonne uuid existante.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
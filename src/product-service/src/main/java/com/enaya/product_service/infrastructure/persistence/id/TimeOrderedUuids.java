@@ -0,0 +1,45 @@
+package com.enaya.product_service.infrastructure.persistence.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * UUID version 7 (RFC 9562) : horodatage Unix en millisecondes sur les 48 bits de poids fort, suivi d'un
+ * compteur de 12 bits (méthode 1) puis de 62 bits aléatoires.
+ *
+ * Les identifiants générés par une même JVM sont strictement croissants : si le compteur déborde dans
+ * la milliseconde, ou si l'horloge recule, l'horodatage est avancé artificiellement. Les insertions
+ * tombent ainsi en fin d'index B-tree au lieu de pages aléatoires.
+ */
+public final class TimeOrderedUuids {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastMillis;
+    private static int sequence;
+
+    private TimeOrderedUuids() {
+    }
+
+    public static UUID next() {
+        long msb = nextTimestampAndSequence();
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static synchronized long nextTimestampAndSequence() {
+        long now = System.currentTimeMillis();
+        if (now > lastMillis) {
+            lastMillis = now;
+            // Départ aléatoire dans la moitié basse : garde de la marge avant débordement
+            sequence = RANDOM.nextInt(MAX_SEQUENCE / 2);
+        } else if (sequence < MAX_SEQUENCE) {
+            sequence++;
+        } else {
+            lastMillis++;
+            sequence = 0;
+        }
+        return (lastMillis << 16) | 0x7000L | sequence;
+    }
+}
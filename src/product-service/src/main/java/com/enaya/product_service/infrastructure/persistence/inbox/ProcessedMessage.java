@@ -0,0 +1,32 @@
+package com.enaya.product_service.infrastructure.persistence.inbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Marqueur de message Kafka déjà traité, clé = consommateur + topic/partition/offset ou id d'événement.
+ */
+@Entity
+@Table(name = "processed_messages", indexes = {
+    @Index(name = "idx_processed_messages_processed_at", columnList = "processed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedMessage {
+
+    @Id
+    @Column(name = "message_key", length = 255)
+    private String messageKey;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+}
@@ -0,0 +1,30 @@
+package com.enaya.product_service.infrastructure.persistence.inbox;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, String> {
+
+    // Retourne 0 si le message était déjà enregistré : la contrainte de clé primaire tranche les courses.
+    // L'espace déclaré évite qu'Hibernate vide tout le cache de second niveau à chaque insertion native.
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "processed_messages"))
+    @Query(value = "INSERT INTO processed_messages (message_key, processed_at) VALUES (:messageKey, :processedAt) " +
+                   "ON CONFLICT (message_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(
+        @Param("messageKey") String messageKey,
+        @Param("processedAt") Instant processedAt
+    );
+
+    @Modifying
+    @Query("DELETE FROM ProcessedMessage m WHERE m.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") Instant before);
+}
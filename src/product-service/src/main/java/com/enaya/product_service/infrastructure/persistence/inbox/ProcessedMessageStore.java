@@ -0,0 +1,120 @@
+package com.enaya.product_service.infrastructure.persistence.inbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Déduplication des messages Kafka (livraison at-least-once).
+ *
+ * Un cache LRU borné en mémoire absorbe les redistributions après rebalance sans
+ * requête ; la table processed_messages fait foi au-delà. Le marqueur est inséré dans
+ * la transaction du listener : si le traitement échoue, il est annulé avec lui et le
+ * message sera retraité. Le cache n'est alimenté qu'après commit pour la même raison.
+ *
+ * Usage dans un @KafkaListener transactionnel :
+ * <pre>
+ * if (!processedMessageStore.claim("mon-listener", topic, partition, offset)) {
+ *     return; // doublon
+ * }
+ * </pre>
+ */
+@Slf4j
+@Component
+public class ProcessedMessageStore {
+
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final Map<String, Boolean> recentKeys;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+
+    @Value("${kafka.idempotency.ttl:7d}")
+    private Duration ttl;
+
+    public ProcessedMessageStore(ProcessedMessageRepository processedMessageRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${kafka.idempotency.cache-size:100000}") int cacheSize) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.memoryHits = Counter.builder("kafka.consumer.duplicates")
+                .tag("source", "memory")
+                .description("Duplicate Kafka deliveries dropped")
+                .register(meterRegistry);
+        this.databaseHits = Counter.builder("kafka.consumer.duplicates")
+                .tag("source", "database")
+                .description("Duplicate Kafka deliveries dropped")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(String consumer, String topic, int partition, long offset) {
+        return claim(consumer + "|" + topic + "-" + partition + "@" + offset);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(String consumer, String eventId) {
+        return claim(consumer + "|" + eventId);
+    }
+
+    /**
+     * Retourne true si le message n'a jamais été traité (et le marque), false si c'est un doublon.
+     * Chaque surcharge porte l'annotation : les appels internes ne passent pas par le proxy.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(String messageKey) {
+        synchronized (recentKeys) {
+            if (recentKeys.get(messageKey) != null) {
+                memoryHits.increment();
+                log.debug("Duplicate message dropped from memory: {}", messageKey);
+                return false;
+            }
+        }
+
+        if (processedMessageRepository.insertIfAbsent(messageKey, Instant.now()) == 0) {
+            remember(messageKey);
+            databaseHits.increment();
+            log.debug("Duplicate message dropped from database: {}", messageKey);
+            return false;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(messageKey);
+            }
+        });
+        return true;
+    }
+
+    private void remember(String messageKey) {
+        synchronized (recentKeys) {
+            recentKeys.put(messageKey, Boolean.TRUE);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.idempotency.cleanup-interval:3600000}")
+    @Transactional
+    public void cleanupExpiredMessages() {
+        int deleted = processedMessageRepository.deleteProcessedBefore(Instant.now().minus(ttl));
+        if (deleted > 0) {
+            log.info("Deleted {} expired processed message markers", deleted);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -49,6 +50,9 @@ public interface CategoryJpaRepository extends JpaRepository<Category, UUID> {
     @Query("SELECT c FROM Category c WHERE c.level = :level")
     List<Category> findByLevel(@Param("level") int level);
 
+    @Query("SELECT c.id FROM Category c WHERE c.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
     Optional<Category> findByPath(String path);
     Optional<Category> findBySlug(String slug);
 } 
\ No newline at end of file
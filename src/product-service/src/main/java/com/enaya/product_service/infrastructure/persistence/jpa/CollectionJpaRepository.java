@@ -18,6 +18,6 @@ public interface CollectionJpaRepository extends JpaRepository<Collection, UUID>
     @Query("SELECT c FROM Collection c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Collection> findByNameContaining(@Param("name") String name);
 
-    @Query("SELECT c FROM Collection c JOIN c.productIds p WHERE p = :productId")
+    @Query("SELECT c FROM Collection c JOIN c.products p WHERE p.id = :productId")
     List<Collection> findByProductId(@Param("productId") UUID productId);
 } 
\ No newline at end of file
@@ -17,12 +17,14 @@ import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductJpaRepository extends JpaRepository<Product, UUID> {
 
@@ -41,6 +43,9 @@ public interface ProductJpaRepository extends JpaRepository<Product, UUID> {
     @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Page<Product> findByCollectionId(@Param("collectionId") UUID collectionId, Pageable pageable);
 
+    @Query("SELECT p.id FROM Product p JOIN p.collections c WHERE c.id = :collectionId")
+    List<UUID> findIdsByCollectionId(@Param("collectionId") UUID collectionId);
+
     // Méthodes avec verrouillage optimiste
     @Lock(LockModeType.OPTIMISTIC)
     List<Product> findByActiveTrue();
@@ -86,6 +91,15 @@ public interface ProductJpaRepository extends JpaRepository<Product, UUID> {
     @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsBySku(String sku);
 
+    // Contrôle d'unicité ensembliste pour l'import en masse
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    // Parcours en streaming des SKU (construction du filtre de Bloom)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT p.sku FROM Product p")
+    Stream<String> streamSkus();
+
     // Méthodes d'attributs avec requêtes optimisées
     @Query("SELECT DISTINCT p FROM Product p JOIN p.attributes a " +
            "WHERE a.name IN :names AND a.value IN :values")
@@ -102,37 +116,18 @@ public interface ProductJpaRepository extends JpaRepository<Product, UUID> {
         Pageable pageable
     );
 
-    // Recherche par map d'attributs avec requête dynamique
-    @Query("SELECT DISTINCT p FROM Product p JOIN p.attributes a " +
-           "WHERE a.name IN :names AND a.value IN :values")
-    List<Product> findByAttributesMap(
-        @Param("names") Set<String> names,
-        @Param("values") Set<String> values
-    );
-    
-    @Query("SELECT DISTINCT p FROM Product p JOIN p.attributes a " +
-           "WHERE a.name IN :names AND a.value IN :values")
-    Page<Product> findByAttributesMap(
-        @Param("names") Set<String> names,
-        @Param("values") Set<String> values,
-        Pageable pageable
-    );
+    List<Product> findByIdIn(Collection<UUID> ids);
 
-    // Méthode utilitaire pour convertir la Map en paramètres
-    default List<Product> findByAttributesMap(Map<String, String> attributes) {
-        return findByAttributesMap(
-            new HashSet<>(attributes.keySet()),
-            new HashSet<>(attributes.values())
-        );
-    }
-
-    default Page<Product> findByAttributesMap(Map<String, String> attributes, Pageable pageable) {
-        return findByAttributesMap(
-            new HashSet<>(attributes.keySet()),
-            new HashSet<>(attributes.values()),
-            pageable
-        );
-    }
+    // Snapshots : attributs chargés avec les produits, collections et stock lus à part (pas de N+1)
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.attributes WHERE p.id IN :ids")
+    List<Product> findWithAttributesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.id, c.id FROM Product p JOIN p.collections c WHERE p.id IN :ids")
+    List<Object[]> findCollectionIdsByProductIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT v.product.id FROM ProductVariant v WHERE v.product.id IN :ids AND v.stockStatus = :status")
+    List<UUID> findIdsWithVariantInStatus(@Param("ids") Collection<UUID> ids,
+                                          @Param("status") ProductVariant.StockStatus status);
 
     // Recherche par valeur d'attribut avec index
     @Query("SELECT DISTINCT p FROM Product p JOIN p.attributes a WHERE a.value LIKE %:value%")
@@ -190,6 +185,19 @@ public interface ProductJpaRepository extends JpaRepository<Product, UUID> {
         Pageable pageable
     );
 
+    // Statistiques agrégées : le volume retourné dépend du nombre de groupes, pas du catalogue
+    long countByActiveTrue();
+
+    @Query("SELECT p.categoryId, COUNT(p) FROM Product p GROUP BY p.categoryId")
+    List<Object[]> countGroupedByCategory();
+
+    @Query("SELECT c.id, COUNT(p) FROM Product p JOIN p.collections c GROUP BY c.id")
+    List<Object[]> countGroupedByCollection();
+
+    // Par statut : nombre de variantes et nombre de produits ayant au moins une variante dans ce statut
+    @Query("SELECT v.stockStatus, COUNT(v), COUNT(DISTINCT v.product.id) FROM ProductVariant v GROUP BY v.stockStatus")
+    List<Object[]> countGroupedByVariantStockStatus();
+
     // Méthode pour trouver les produits en stock
     @Query("SELECT DISTINCT p FROM Product p JOIN p.variants v " +
            "WHERE v.stockStatus = 'IN_STOCK'")
@@ -236,6 +244,10 @@ public interface ProductJpaRepository extends JpaRepository<Product, UUID> {
         @Param("status") ProductVariant.StockStatus status
     );
 
+    // Statut et version des variantes après une mise à jour ensembliste (garde de version côté index)
+    @Query("SELECT v.product.id, v.id, v.stockStatus, v.version FROM ProductVariant v WHERE v.product.id IN :productIds")
+    List<Object[]> findVariantStockVersions(@Param("productIds") Collection<UUID> productIds);
+
     // Méthode pour mettre à jour le statut de stock de plusieurs variantes
     @Modifying
     @Query("UPDATE ProductVariant v SET v.stockStatus = :status, v.modificationDate = CURRENT_TIMESTAMP, v.version = v.version + 1 " +
@@ -254,6 +266,15 @@ public interface ProductJpaRepository extends JpaRepository<Product, UUID> {
         @Param("status") ProductVariant.StockStatus status
     );
 
+    // Méthode pour lire la version courante d'une variante (garde de version côté index)
+    @Query("SELECT v.version FROM ProductVariant v WHERE v.id = :variantId")
+    Optional<Long> findVariantVersion(@Param("variantId") UUID variantId);
+
+    // Méthode pour parcourir en streaming les statuts de stock (construction de la projection de disponibilité)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT v.product.id, v.id, v.stockStatus FROM ProductVariant v")
+    Stream<Object[]> streamVariantStockStatuses();
+
     // Méthode pour vérifier si un produit a des variantes en stock
     @Query("SELECT CASE WHEN COUNT(v) > 0 THEN true ELSE false END " +
            "FROM ProductVariant v " +
@@ -285,16 +306,24 @@ public interface ProductJpaRepository extends JpaRepository<Product, UUID> {
         Pageable pageable
     );
 
-    // Méthode de produits similaires optimisée
-    @Query("SELECT DISTINCT p FROM Product p " +
-           "WHERE p.categoryId = :categoryId " +
-           "AND p.id != :excludeProductId " +
-           "AND EXISTS (SELECT 1 FROM p.attributes a WHERE a IN :attributes) " +
-           "ORDER BY p.modificationDate DESC")
-    List<Product> findRelatedProducts(
+    // Top-K des produits de la même catégorie, classés par nombre d'attributs (nom, valeur) partagés.
+    // Ne renvoie que les ids : l'hydratation se fait ensuite en une requête.
+    @Query(value = "SELECT candidate.product_id " +
+           "FROM product_attributes source " +
+           "JOIN product_attributes candidate " +
+           "  ON candidate.attribute_name = source.attribute_name " +
+           " AND candidate.attribute_value = source.attribute_value " +
+           " AND candidate.product_id <> source.product_id " +
+           "JOIN products p ON p.id = candidate.product_id " +
+           "WHERE source.product_id = :productId " +
+           "AND p.category_id = :categoryId " +
+           "AND p.active = true " +
+           "GROUP BY candidate.product_id, p.modification_date " +
+           "ORDER BY COUNT(*) DESC, p.modification_date DESC " +
+           "LIMIT :limit", nativeQuery = true)
+    List<UUID> findRelatedProductIds(
+        @Param("productId") UUID productId,
         @Param("categoryId") UUID categoryId,
-        @Param("attributes") Set<ProductAttribute> attributes,
-        @Param("excludeProductId") UUID excludeProductId,
         @Param("limit") int limit
     );
 
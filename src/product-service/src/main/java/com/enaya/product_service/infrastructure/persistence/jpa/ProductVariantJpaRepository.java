@@ -1,14 +1,18 @@
 package com.enaya.product_service.infrastructure.persistence.jpa;
 
 import com.enaya.product_service.domain.model.product.ProductVariant;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProductVariantJpaRepository extends JpaRepository<ProductVariant, UUID> {
 
@@ -18,6 +22,13 @@ public interface ProductVariantJpaRepository extends JpaRepository<ProductVarian
     @Query("SELECT CASE WHEN COUNT(v) > 0 THEN true ELSE false END FROM ProductVariant v WHERE v.sku = :sku")
     boolean existsBySku(@Param("sku") String sku);
 
+    @Query("SELECT v.sku FROM ProductVariant v WHERE v.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT v.sku FROM ProductVariant v")
+    Stream<String> streamSkus();
+
     @Query("SELECT v FROM ProductVariant v WHERE v.active = true")
     List<ProductVariant> findActiveVariants();
 
@@ -0,0 +1,223 @@
+package com.enaya.product_service.infrastructure.persistence.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource qui chronomètre chaque exécution JDBC et compte les lignes lues ou modifiées.
+ *
+ * Pour une requête, le temps mesuré est celui de l'exécution ; les lignes sont comptées à la lecture
+ * du ResultSet et la mesure est enregistrée à sa fermeture. unwrap() donne accès au pool sous-jacent.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final QueryMetrics queryMetrics;
+
+    public InstrumentedDataSource(DataSource target, QueryMetrics queryMetrics) {
+        super(target);
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final List<String> bindShapes = new ArrayList<>();
+        private final List<String> batchedSql = new ArrayList<>();
+        private PendingQuery pending;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                recordBind(index, name, args[1]);
+            } else if (name.equals("clearParameters")) {
+                bindShapes.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                batchedSql.add((String) args[0]);
+            } else if (name.equals("close")) {
+                flushPending();
+            }
+
+            if (!name.startsWith("execute")) {
+                return InstrumentedDataSource.invoke(target, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String statementSql
+                    ? statementSql
+                    : preparedSql != null ? preparedSql : String.join(";", batchedSql);
+            flushPending();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentedDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                queryMetrics.recordStatement(sql, System.nanoTime() - start, -1, List.copyOf(bindShapes), false);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (result instanceof ResultSet resultSet) {
+                pending = new PendingQuery(sql, elapsed, List.copyOf(bindShapes));
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, pending));
+            }
+            queryMetrics.recordStatement(sql, elapsed, affectedRows(result), List.copyOf(bindShapes), true);
+            if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                batchedSql.clear();
+            }
+            return result;
+        }
+
+        private void recordBind(int index, String setter, Object value) {
+            while (bindShapes.size() < index) {
+                bindShapes.add("?");
+            }
+            String shape;
+            if (setter.equals("setNull") || value == null) {
+                shape = "null";
+            } else if (value instanceof CharSequence text) {
+                shape = "String(" + text.length() + ")";
+            } else {
+                shape = value.getClass().getSimpleName();
+            }
+            bindShapes.set(index - 1, shape);
+        }
+
+        private void flushPending() {
+            if (pending != null) {
+                pending.record();
+                pending = null;
+            }
+        }
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        if (result instanceof long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        // execute() : nombre de lignes inconnu
+        return -1;
+    }
+
+    private class PendingQuery {
+        private final String sql;
+        private final long elapsedNanos;
+        private final List<String> bindShapes;
+        private long rows;
+        private boolean recorded;
+
+        private PendingQuery(String sql, long elapsedNanos, List<String> bindShapes) {
+            this.sql = sql;
+            this.elapsedNanos = elapsedNanos;
+            this.bindShapes = bindShapes;
+        }
+
+        void record() {
+            if (!recorded) {
+                recorded = true;
+                queryMetrics.recordStatement(sql, elapsedNanos, rows, bindShapes, true);
+            }
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final PendingQuery pending;
+
+        private ResultSetHandler(ResultSet target, PendingQuery pending) {
+            this.target = target;
+            this.pending = pending;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                pending.rows++;
+            } else if (method.getName().equals("close")) {
+                pending.record();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.enaya.product_service.infrastructure.persistence.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Instrumentation des accès base, désactivable avec db.instrumentation.enabled=false.
+ * L'endpoint querystats doit être exposé (management.endpoints.web.exposure.include).
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryInstrumentationConfig {
+
+    @Bean
+    public static QueryInstrumentationPostProcessor queryInstrumentationPostProcessor(ObjectProvider<QueryMetrics> queryMetrics) {
+        return new QueryInstrumentationPostProcessor(queryMetrics);
+    }
+
+    @Bean
+    public QueryStatsEndpoint queryStatsEndpoint(QueryMetrics queryMetrics) {
+        return new QueryStatsEndpoint(queryMetrics);
+    }
+}
@@ -0,0 +1,71 @@
+package com.enaya.product_service.infrastructure.persistence.monitoring;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Branche l'instrumentation sur la DataSource principale (bean "dataSource") et sur les repositories
+ * de l'application : interfaces Spring Data et implémentations des repositories du domaine.
+ */
+public class QueryInstrumentationPostProcessor implements BeanPostProcessor {
+
+    private static final String BASE_PACKAGE = "com.enaya.product_service";
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final ObjectProvider<QueryMetrics> queryMetrics;
+
+    public QueryInstrumentationPostProcessor(ObjectProvider<QueryMetrics> queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)
+                && !(bean instanceof InstrumentedDataSource)) {
+            return new InstrumentedDataSource(dataSource, queryMetrics.getObject());
+        }
+
+        String repository = repositoryName(bean);
+        if (repository == null) {
+            return bean;
+        }
+        RepositoryTimingInterceptor interceptor = new RepositoryTimingInterceptor(queryMetrics.getObject(), repository);
+        // Proxy existant (Spring Data, @Transactional...) : l'interception se place en tête de chaîne
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private static String repositoryName(Object bean) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(AopUtils.getTargetClass(bean))) {
+            if (isApplicationRepository(type)) {
+                // Implémentation du domaine : nommée d'après la classe, sinon d'après l'interface Spring Data
+                Class<?> target = AopUtils.getTargetClass(bean);
+                return target.getName().startsWith(BASE_PACKAGE) ? target.getSimpleName() : type.getSimpleName();
+            }
+        }
+        if (bean instanceof Advised advised) {
+            for (Class<?> type : advised.getProxiedInterfaces()) {
+                if (isApplicationRepository(type)) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isApplicationRepository(Class<?> type) {
+        return type.getName().startsWith(BASE_PACKAGE) && type.getSimpleName().endsWith("Repository");
+    }
+}
@@ -0,0 +1,171 @@
+package com.enaya.product_service.infrastructure.persistence.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Temps passé en base par méthode de repository et par requête SQL normalisée.
+ *
+ * Micrometer : repository.invocations / repository.rows (tags repository, method, outcome) et
+ * db.query / db.query.rows (tag fingerprint = identifiant court du SQL normalisé, au-delà de
+ * max-fingerprints regroupé sous "other"). Le texte des requêtes et les totaux sont servis par
+ * l'endpoint actuator querystats. Les requêtes au-delà du seuil sont journalisées avec la forme des
+ * paramètres liés (types, jamais les valeurs).
+ */
+@Slf4j
+@Component
+public class QueryMetrics {
+
+    private static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int maxFingerprints;
+
+    private final Map<String, Stats> statementStats = new ConcurrentHashMap<>();
+    private final Map<String, Stats> repositoryStats = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry meterRegistry,
+                        @Value("${db.instrumentation.slow-query-threshold:500ms}") Duration slowThreshold,
+                        @Value("${db.instrumentation.max-fingerprints:200}") int maxFingerprints) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    void recordStatement(String sql, long nanos, long rows, List<String> bindShapes, boolean success) {
+        String normalized = SqlFingerprint.normalize(sql);
+        String id = SqlFingerprint.id(normalized);
+        Stats stats = statementStats.get(id);
+        if (stats == null && statementStats.size() >= maxFingerprints) {
+            id = OTHER;
+            normalized = OTHER;
+        }
+        String label = normalized;
+        statementStats.computeIfAbsent(id, key -> new Stats(label)).record(nanos, rows, success);
+
+        String outcome = success ? "success" : "failure";
+        Timer.builder("db.query")
+                .description("JDBC statement execution time per SQL fingerprint")
+                .tag("fingerprint", id)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (rows >= 0) {
+            DistributionSummary.builder("db.query.rows")
+                    .description("Rows returned or affected per SQL fingerprint")
+                    .tag("fingerprint", id)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+
+        if (nanos >= slowThresholdNanos) {
+            log.warn("Slow query [{}] {} ms, {} rows, binds={}: {}", id, TimeUnit.NANOSECONDS.toMillis(nanos),
+                    rows, bindShapes, abbreviate(sql));
+        }
+    }
+
+    void recordRepositoryCall(String repository, String method, long nanos, long rows, boolean success) {
+        repositoryStats.computeIfAbsent(repository + "." + method, Stats::new).record(nanos, rows, success);
+
+        String outcome = success ? "success" : "failure";
+        Timer.builder("repository.invocations")
+                .description("Repository method latency")
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (rows >= 0) {
+            DistributionSummary.builder("repository.rows")
+                    .description("Entities returned per repository call")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+    }
+
+    public List<Map<String, Object>> statementSnapshot(int limit) {
+        return snapshot(statementStats, limit, "fingerprint", "sql");
+    }
+
+    public List<Map<String, Object>> repositorySnapshot(int limit) {
+        return snapshot(repositoryStats, limit, "method", null);
+    }
+
+    public void reset() {
+        statementStats.clear();
+        repositoryStats.clear();
+    }
+
+    private static List<Map<String, Object>> snapshot(Map<String, Stats> source, int limit, String idName, String labelName) {
+        return source.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Stats> entry) -> entry.getValue().totalNanos.sum()).reversed())
+                .limit(limit)
+                .map(entry -> entry.getValue().describe(idName, entry.getKey(), labelName))
+                .toList();
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() > 2000 ? sql.substring(0, 2000) + "..." : sql;
+    }
+
+    private static final class Stats {
+        private final String label;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Stats(String label) {
+            this.label = label;
+        }
+
+        void record(long nanos, long rowCount, boolean success) {
+            count.increment();
+            if (!success) {
+                failures.increment();
+            }
+            totalNanos.add(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> describe(String idName, String id, String labelName) {
+            long calls = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put(idName, id);
+            if (labelName != null) {
+                description.put(labelName, label);
+            }
+            description.put("count", calls);
+            description.put("failures", failures.sum());
+            description.put("totalMs", TimeUnit.NANOSECONDS.toMillis(total));
+            description.put("avgMs", calls == 0 ? 0.0 : total / 1_000_000.0 / calls);
+            description.put("maxMs", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            description.put("rows", rows.sum());
+            return description;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.enaya.product_service.infrastructure.persistence.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+/**
+ * /actuator/querystats : requêtes SQL normalisées et méthodes de repository triées par temps total.
+ * DELETE remet les totaux à zéro (les métriques Micrometer ne sont pas affectées).
+ */
+@Endpoint(id = "querystats")
+@RequiredArgsConstructor
+public class QueryStatsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final QueryMetrics queryMetrics;
+
+    @ReadOperation
+    public Map<String, Object> queryStats(@Nullable Integer limit) {
+        int max = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        return Map.of(
+                "statements", queryMetrics.statementSnapshot(max),
+                "repositories", queryMetrics.repositorySnapshot(max));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryMetrics.reset();
+    }
+}
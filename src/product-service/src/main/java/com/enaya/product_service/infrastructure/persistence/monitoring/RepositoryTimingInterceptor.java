@@ -0,0 +1,58 @@
+package com.enaya.product_service.infrastructure.persistence.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Chronomètre chaque appel de méthode d'un repository et compte les entités retournées.
+ */
+class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    private final QueryMetrics queryMetrics;
+    private final String repository;
+
+    RepositoryTimingInterceptor(QueryMetrics queryMetrics, String repository) {
+        this.queryMetrics = queryMetrics;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            queryMetrics.recordRepositoryCall(repository, invocation.getMethod().getName(),
+                    System.nanoTime() - start, rows(result), true);
+            return result;
+        } catch (Throwable e) {
+            queryMetrics.recordRepositoryCall(repository, invocation.getMethod().getName(),
+                    System.nanoTime() - start, -1, false);
+            throw e;
+        }
+    }
+
+    // -1 lorsque le résultat n'est pas une liste d'entités (compteur, booléen, flux non consommé...)
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,13 @@
+package com.enaya.product_service.infrastructure.persistence.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position d'un événement DEAD dans l'ordre (createdAt, id) utilisé comme curseur du rejeu.
+ */
+public record DeadEventKey(UUID id, Instant createdAt) {
+
+    // Avant tout événement : createdAt est renseigné à l'insertion
+    public static final DeadEventKey START = new DeadEventKey(new UUID(0L, 0L), Instant.EPOCH);
+}
@@ -1,5 +1,6 @@
 package com.enaya.product_service.infrastructure.persistence.outbox;
 
+import com.enaya.product_service.infrastructure.persistence.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -15,6 +16,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+// Index partiel (status IN ('PENDING', 'FAILED')) créé par scripts/add-outbox-dead-status.sql :
+// @Index ne sait pas exprimer la clause WHERE, il n'est donc pas déclaré ici
 @Table(name = "outbox_events")
 @Data
 @Builder
@@ -22,16 +25,16 @@ import java.util.UUID;
 @AllArgsConstructor
 public class OutboxEvent {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @NotBlank
     @Column(nullable = false)
     private String eventType;
 
-    @NotBlank
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String payload;
+    @NotNull
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] payload;
 
     @NotBlank
     @Column(nullable = false)
@@ -59,6 +62,9 @@ public class OutboxEvent {
     @Column
     private Instant publishedAt;
 
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
@@ -72,7 +78,7 @@ public class OutboxEvent {
 
     private LocalDateTime processedAt;
 
-    public OutboxEvent(String eventType, String payload, String topic, String aggregateId, String aggregateType) {
+    public OutboxEvent(String eventType, byte[] payload, String topic, String aggregateId, String aggregateType) {
         this.eventType = eventType;
         this.payload = payload;
         this.topic = topic;
@@ -80,6 +86,7 @@ public class OutboxEvent {
         this.aggregateType = aggregateType;
         this.status = OutboxEventStatus.PENDING;
         this.retryCount = 0;
+        this.nextAttemptAt = Instant.now();
     }
 
     public void markAsPublished() {
@@ -88,10 +95,16 @@ public class OutboxEvent {
         this.lastError = null;
     }
 
-    public void markAsFailed(String error) {
+    public void markAsFailed(String error, Instant nextAttemptAt) {
         this.status = OutboxEventStatus.FAILED;
         this.lastError = error;
         this.retryCount++;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    // Un payload vide est publié comme une tombstone
+    public boolean isTombstone() {
+        return this.payload != null && this.payload.length == 0;
     }
 
     public boolean canRetry(int maxRetries) {
@@ -109,6 +122,9 @@ public class OutboxEvent {
         if (this.updatedAt == null) {
             this.updatedAt = Instant.now();
         }
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
     }
 
     @PreUpdate
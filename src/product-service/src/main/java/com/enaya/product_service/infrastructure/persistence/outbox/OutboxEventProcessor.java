@@ -1,8 +1,12 @@
 package com.enaya.product_service.infrastructure.persistence.outbox;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.enaya.product_service.config.KafkaProducerProfile;
+import com.enaya.product_service.config.KafkaProducerProperties;
+import com.enaya.product_service.infrastructure.messaging.codec.EventPayloadCodec;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
@@ -10,17 +14,26 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OutboxEventProcessor {
     private final OutboxRepositoryImpl outboxRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxKafkaTemplates kafkaTemplates;
+    private final EventPayloadCodec payloadCodec;
+    private final OutboxMetrics outboxMetrics;
+    private final OutboxRetryPolicy retryPolicy;
+    private final KafkaProducerProperties producerProperties;
 
     @Value("${outbox.batch-size:100}")
     private int batchSize;
@@ -31,32 +44,156 @@ public class OutboxEventProcessor {
     @Value("${outbox.processor.fixed-delay:5000}")
     private String fixedDelay;
 
-    @Value("${outbox.processor.retry-delay:300000}")
-    private String retryDelay;
+    // 0 : bail déduit des timeouts des producteurs du relais
+    @Value("${outbox.processor.lease:0}")
+    private long leaseMs;
+
+    @Value("${outbox.processor.lease-margin:30000}")
+    private long leaseMarginMs;
+
+    // Fenêtre pendant laquelle de nouveaux envois du lot peuvent partir
+    private long sendWindowMs;
+
+    /**
+     * Un événement réclamé ne doit pas être repris par une autre instance tant que son envoi peut
+     * encore aboutir. Les envois ne partent que pendant max.block.ms après le claim ; le dernier
+     * peut encore bloquer max.block.ms, puis son accusé arrive au plus delivery.timeout.ms après
+     * (le commit transactionnel attend ces mêmes accusés). Les attentes séquentielles du lot sont
+     * donc toutes couvertes par : 2 × max.block.ms + delivery.timeout.ms + marge.
+     */
+    @PostConstruct
+    void initLease() {
+        long maxBlockMs = 0;
+        long deliveryTimeoutMs = 0;
+        for (KafkaProducerProfile profile : KafkaProducerProfile.values()) {
+            KafkaProducerProperties.Profile settings = producerProperties.get(profile);
+            maxBlockMs = Math.max(maxBlockMs, settings.getMaxBlockMs());
+            deliveryTimeoutMs = Math.max(deliveryTimeoutMs, settings.getDeliveryTimeoutMs());
+        }
+        long requiredLeaseMs = 2 * maxBlockMs + deliveryTimeoutMs + leaseMarginMs;
+        if (leaseMs <= 0) {
+            leaseMs = requiredLeaseMs;
+        } else if (leaseMs < requiredLeaseMs) {
+            throw new IllegalStateException("outbox.processor.lease=" + leaseMs + " ms is shorter than the " +
+                    requiredLeaseMs + " ms an outbox batch may wait for (2 x max.block.ms + delivery.timeout.ms + " +
+                    "outbox.processor.lease-margin): events could be claimed and published twice");
+        }
+        sendWindowMs = maxBlockMs;
+        log.info("Outbox lease set to {} ms (send window {} ms)", leaseMs, sendWindowMs);
+    }
 
-    @Transactional
     public void processEvent(OutboxEvent event) {
-        if (!event.canRetry(maxRetries)) {
-            log.warn("Event {} has exceeded maximum retry attempts", event.getId());
-            return;
+        processEventsInBatch(List.of(event));
+    }
+
+    // Producteur transactionnel : un seul commit pour tous les événements du lot qui partagent ce template
+    private List<PendingSend> sendInTransaction(KafkaTemplate<String, byte[]> kafkaTemplate, List<OutboxEvent> events,
+                                                long sendDeadline) {
+        long sendStart = System.nanoTime();
+        List<PendingSend> sends = new ArrayList<>(events.size());
+        if (sendStart - sendDeadline > 0) {
+            logDeferred(events.size());
+            return sends;
+        }
+        List<OutboxEvent> ready = new ArrayList<>(events.size());
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            // Un payload illisible échoue seul au lieu d'avorter la transaction de tout le lot
+            try {
+                records.add(toRecord(event));
+                ready.add(event);
+            } catch (Exception e) {
+                sends.add(new PendingSend(event, sendStart, CompletableFuture.failedFuture(e)));
+            }
+        }
+        if (records.isEmpty()) {
+            return sends;
+        }
+        try {
+            // Le commit attend l'acquittement de tous les envois : rien n'est marqué publié avant d'être visible
+            sends.addAll(kafkaTemplate.executeInTransaction(operations -> {
+                List<PendingSend> inTransaction = new ArrayList<>(records.size());
+                for (int i = 0; i < records.size(); i++) {
+                    inTransaction.add(new PendingSend(ready.get(i), sendStart, operations.send(records.get(i))));
+                }
+                return inTransaction;
+            }));
+        } catch (Exception e) {
+            // Transaction avortée : aucun événement du lot n'est visible des consommateurs
+            ready.forEach(event ->
+                    sends.add(new PendingSend(event, sendStart, CompletableFuture.failedFuture(e))));
+        }
+        return sends;
+    }
+
+    private List<PendingSend> sendEach(KafkaTemplate<String, byte[]> kafkaTemplate, List<OutboxEvent> events,
+                                       long sendDeadline) {
+        List<PendingSend> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            long sendStart = System.nanoTime();
+            if (sendStart - sendDeadline > 0) {
+                logDeferred(events.size() - sends.size());
+                break;
+            }
+            try {
+                sends.add(new PendingSend(event, sendStart, kafkaTemplate.send(toRecord(event))));
+            } catch (Exception e) {
+                sends.add(new PendingSend(event, sendStart, CompletableFuture.failedFuture(e)));
+            }
         }
+        return sends;
+    }
 
+    // Producteur bloqué trop longtemps : les événements restants gardent leur bail et seront
+    // repris à son expiration, sans avoir été envoyés
+    private void logDeferred(int count) {
+        log.warn("Outbox send window exceeded, deferring {} events to the next lease", count);
+    }
+
+    // Attend l'acquittement puis écrit le statut sur le thread appelant, jamais sur le thread I/O du producteur
+    private void complete(PendingSend send) {
         try {
-            CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(
+            send.future().get();
+            outboxMetrics.recordPublished(send.event(), send.sendStart());
+            handleSuccessfulPublish(send.event());
+        } catch (ExecutionException e) {
+            outboxMetrics.recordFailed(send.event(), send.sendStart());
+            handleFailedPublish(send.event(), e.getCause() != null ? e.getCause() : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Le bail expirera et l'événement sera repris au prochain cycle
+            log.warn("Interrupted while waiting for event {} to be acknowledged", send.event().getId());
+        }
+    }
+
+    private ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        if (event.isTombstone()) {
+            ProducerRecord<String, byte[]> tombstone = new ProducerRecord<>(
                 event.getTopic(),
-                event.getPayload()
+                event.getAggregateId(),
+                null
             );
+            tombstone.headers()
+                .add("event-type", event.getEventType().getBytes(StandardCharsets.UTF_8))
+                .add("event-id", event.getId().toString().getBytes(StandardCharsets.UTF_8));
+            return tombstone;
+        }
 
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    handleSuccessfulPublish(event);
-                } else {
-                    handleFailedPublish(event, ex);
-                }
-            });
-        } catch (Exception e) {
-            handleFailedPublish(event, e);
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+            event.getTopic(),
+            event.getAggregateId(),
+            event.getPayload()
+        );
+        EventPayloadCodec.PayloadHeader header = payloadCodec.readHeader(event.getPayload());
+        record.headers()
+            .add("event-type", event.getEventType().getBytes(StandardCharsets.UTF_8))
+            .add("event-id", event.getId().toString().getBytes(StandardCharsets.UTF_8))
+            .add("schema-version", String.valueOf(header.schemaVersion()).getBytes(StandardCharsets.UTF_8))
+            .add("content-type", header.contentType().getBytes(StandardCharsets.UTF_8));
+        if (header.compressed()) {
+            record.headers().add("content-encoding", "deflate".getBytes(StandardCharsets.UTF_8));
         }
+        return record;
     }
 
     private void handleSuccessfulPublish(OutboxEvent event) {
@@ -74,10 +211,13 @@ public class OutboxEventProcessor {
 
     private void handleFailedPublish(OutboxEvent event, Throwable ex) {
         try {
+            int retryCount = event.getRetryCount() != null ? event.getRetryCount() + 1 : 1;
+            boolean exhausted = retryCount >= maxRetries;
             outboxRepository.markAsFailed(
                 event.getId(),
-                OutboxEventStatus.FAILED,
-                ex.getMessage()
+                exhausted ? OutboxEventStatus.DEAD : OutboxEventStatus.FAILED,
+                ex.getMessage(),
+                exhausted ? null : retryPolicy.nextAttemptAt(retryCount)
             );
             log.error("Failed to publish event {} to topic {}: {}", 
                     event.getId(), event.getTopic(), ex.getMessage(), ex);
@@ -86,32 +226,47 @@ public class OutboxEventProcessor {
         }
     }
 
-    @Transactional
     public void processEventsInBatch(List<OutboxEvent> events) {
+        long sendDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendWindowMs);
+        // Un topic relève d'un seul profil : l'ordre par clé est conservé dans chaque groupe
+        Map<KafkaTemplate<String, byte[]>, List<OutboxEvent>> eventsByTemplate = new LinkedHashMap<>();
         for (OutboxEvent event : events) {
-            try {
-                processEvent(event);
-            } catch (Exception e) {
-                log.error("Error processing event in batch: {}", e.getMessage(), e);
+            if (!event.canRetry(maxRetries)) {
+                log.warn("Event {} has exceeded maximum retry attempts, moving it to DEAD", event.getId());
+                outboxRepository.markAsDead(event.getId());
+                continue;
             }
+            eventsByTemplate.computeIfAbsent(kafkaTemplates.forTopic(event.getTopic()), template -> new ArrayList<>())
+                    .add(event);
         }
-    }
 
-    @Scheduled(fixedDelayString = "${outbox.processor.fixed-delay:5000}")
-    @Transactional
-    public void processPendingEvents() {
-        List<OutboxEvent> pendingEvents = outboxRepository.findByStatus(OutboxEventStatus.PENDING);
-        processEventsInBatch(pendingEvents);
+        // Tous les envois partent avant la première attente : le lot remplit les batchs du producteur
+        List<PendingSend> sends = new ArrayList<>(events.size());
+        eventsByTemplate.forEach((kafkaTemplate, group) -> sends.addAll(kafkaTemplate.isTransactional()
+                ? sendInTransaction(kafkaTemplate, group, sendDeadline)
+                : sendEach(kafkaTemplate, group, sendDeadline)));
+
+        for (PendingSend send : sends) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            complete(send);
+        }
     }
 
-    @Scheduled(fixedDelayString = "${outbox.processor.retry-delay:300000}")
-    @Transactional
-    public void retryFailedEvents() {
-        List<OutboxEvent> failedEvents = outboxRepository.findFailedEventsForRetry(
+    // Les nouveaux événements et les échecs dont le backoff est écoulé passent par la même requête.
+    // Le claim est validé dans sa propre transaction avant l'envoi : le bail protège les lignes, et
+    // aucun verrou n'est tenu pendant que le producteur attend de la place dans son buffer.
+    @Scheduled(fixedDelayString = "${outbox.processor.fixed-delay:5000}")
+    public void processDueEvents() {
+        Instant now = Instant.now();
+        List<OutboxEvent> dueEvents = outboxRepository.claimDueEvents(
+            now,
             maxRetries,
-            org.springframework.data.domain.PageRequest.of(0, batchSize)
+            batchSize,
+            now.plusMillis(leaseMs)
         );
-        processEventsInBatch(failedEvents);
+        processEventsInBatch(dueEvents);
     }
 
     @Transactional
@@ -120,4 +275,7 @@ public class OutboxEventProcessor {
         int deletedCount = outboxRepository.deletePublishedEventsOlderThan(cutoffDate);
         log.info("Cleaned up {} old published events", deletedCount);
     }
+
+    private record PendingSend(OutboxEvent event, long sendStart, CompletableFuture<SendResult<String, byte[]>> future) {
+    }
 }
@@ -1,12 +1,14 @@
 package com.enaya.product_service.infrastructure.persistence.outbox;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -37,6 +39,12 @@ public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID>
     
     @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.status = :status")
     long countByStatus(@Param("status") OutboxEventStatus status);
+
+    @Query("SELECT e.status, COUNT(e) FROM OutboxEvent e GROUP BY e.status")
+    List<Object[]> countGroupedByStatus();
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = :status")
+    Instant findOldestCreatedAtByStatus(@Param("status") OutboxEventStatus status);
     
     @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'FAILED' AND e.retryCount < :maxRetries")
     Page<OutboxEvent> findFailedEventsForRetry(
@@ -57,11 +65,66 @@ public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID>
     );
     
     @Modifying
-    @Query("UPDATE OutboxEvent e SET e.status = :newStatus, e.lastError = :error, e.retryCount = e.retryCount + 1 WHERE e.id = :id")
+    @Query("UPDATE OutboxEvent e SET e.status = :newStatus, e.lastError = :error, e.retryCount = e.retryCount + 1, " +
+           "e.nextAttemptAt = :nextAttemptAt WHERE e.id = :id")
     int markAsFailed(
         @Param("id") UUID id,
         @Param("newStatus") OutboxEventStatus newStatus,
-        @Param("error") String error
+        @Param("error") String error,
+        @Param("nextAttemptAt") Instant nextAttemptAt
+    );
+
+    // Événements dont l'heure de tentative est passée ; SKIP LOCKED permet à plusieurs
+    // instances du relais de se partager le backlog sans se bloquer
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now " +
+           "AND e.retryCount < :maxRetries ORDER BY e.nextAttemptAt ASC")
+    List<OutboxEvent> findDueEvents(
+        @Param("statuses") List<OutboxEventStatus> statuses,
+        @Param("now") Instant now,
+        @Param("maxRetries") int maxRetries,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DEAD', e.nextAttemptAt = NULL WHERE e.id = :id")
+    int markAsDead(@Param("id") UUID id);
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'DEAD' " +
+           "AND (:topic IS NULL OR e.topic = :topic) " +
+           "AND (:eventType IS NULL OR e.eventType = :eventType) " +
+           "AND (:aggregateId IS NULL OR e.aggregateId = :aggregateId)")
+    Page<OutboxEvent> findDeadEvents(
+        @Param("topic") String topic,
+        @Param("eventType") String eventType,
+        @Param("aggregateId") String aggregateId,
+        Pageable pageable
+    );
+
+    // Curseur (createdAt, id) : les lignes déjà rejouées sortent du filtre sans décaler les suivantes
+    @Query("SELECT new com.enaya.product_service.infrastructure.persistence.outbox.DeadEventKey(e.id, e.createdAt) " +
+           "FROM OutboxEvent e WHERE e.status = 'DEAD' " +
+           "AND (:topic IS NULL OR e.topic = :topic) " +
+           "AND (:eventType IS NULL OR e.eventType = :eventType) " +
+           "AND (:aggregateId IS NULL OR e.aggregateId = :aggregateId) " +
+           "AND (e.createdAt > :afterCreatedAt OR (e.createdAt = :afterCreatedAt AND e.id > :afterId)) " +
+           "ORDER BY e.createdAt ASC, e.id ASC")
+    List<DeadEventKey> findDeadEventKeysAfter(
+        @Param("topic") String topic,
+        @Param("eventType") String eventType,
+        @Param("aggregateId") String aggregateId,
+        @Param("afterCreatedAt") Instant afterCreatedAt,
+        @Param("afterId") UUID afterId,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PENDING', e.retryCount = 0, e.lastError = NULL, " +
+           "e.nextAttemptAt = :nextAttemptAt WHERE e.id IN :ids AND e.status = 'DEAD'")
+    int requeueDeadEvents(
+        @Param("ids") List<UUID> ids,
+        @Param("nextAttemptAt") Instant nextAttemptAt
     );
 
     @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' ORDER BY e.createdAt ASC")
@@ -0,0 +1,23 @@
+package com.enaya.product_service.infrastructure.persistence.outbox;
+
+import com.enaya.product_service.config.KafkaProducerProfile;
+import com.enaya.product_service.config.KafkaProducerProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
+
+/**
+ * Templates du relais outbox, un par profil de producteur.
+ * Le topic de l'événement détermine le profil (kafka.producer.topic-profiles).
+ */
+@RequiredArgsConstructor
+public class OutboxKafkaTemplates {
+
+    private final Map<KafkaProducerProfile, KafkaTemplate<String, byte[]>> templates;
+    private final KafkaProducerProperties producerProperties;
+
+    public KafkaTemplate<String, byte[]> forTopic(String topic) {
+        return templates.get(producerProperties.profileFor(topic));
+    }
+}
@@ -0,0 +1,98 @@
+package com.enaya.product_service.infrastructure.persistence.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métriques de l'outbox exposées via actuator (/actuator/metrics, /actuator/prometheus).
+ *
+ * Les jauges de backlog sont rafraîchies périodiquement par une seule requête
+ * groupée, pour que le scraping ne génère pas de requêtes en base.
+ */
+@Slf4j
+@Component
+public class OutboxMetrics {
+
+    private final OutboxRepositoryImpl outboxRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<OutboxEventStatus, AtomicLong> countsByStatus = new EnumMap<>(OutboxEventStatus.class);
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+
+    public OutboxMetrics(OutboxRepositoryImpl outboxRepository, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.meterRegistry = meterRegistry;
+
+        for (OutboxEventStatus status : OutboxEventStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            countsByStatus.put(status, count);
+            Gauge.builder("outbox.events", count, AtomicLong::get)
+                    .description("Number of outbox events by status")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("outbox.pending.oldest.age", oldestPendingAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.metrics.refresh-interval:15000}")
+    public void refreshBacklog() {
+        try {
+            outboxRepository.countGroupedByStatus()
+                    .forEach((status, count) -> countsByStatus.get(status).set(count));
+            oldestPendingAgeSeconds.set(outboxRepository.findOldestCreatedAt(OutboxEventStatus.PENDING)
+                    .map(createdAt -> Duration.between(createdAt, Instant.now()).toSeconds())
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.warn("Failed to refresh outbox backlog metrics: {}", e.getMessage());
+        }
+    }
+
+    public void recordPublished(OutboxEvent event, long sendStartNanos) {
+        recordSendLatency(event, sendStartNanos, "success");
+        if (event.getCreatedAt() != null) {
+            Timer.builder("outbox.publish.lag")
+                    .description("Time between outbox commit and successful Kafka publish")
+                    .tag("topic", event.getTopic())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.between(event.getCreatedAt(), Instant.now()));
+        }
+        counter("outbox.events.published", event).increment();
+    }
+
+    public void recordFailed(OutboxEvent event, long sendStartNanos) {
+        recordSendLatency(event, sendStartNanos, "failure");
+        counter("outbox.events.failed", event).increment();
+    }
+
+    private void recordSendLatency(OutboxEvent event, long sendStartNanos, String outcome) {
+        Timer.builder("outbox.kafka.send")
+                .description("Kafka send latency for outbox events")
+                .tag("topic", event.getTopic())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - sendStartNanos));
+    }
+
+    private Counter counter(String name, OutboxEvent event) {
+        return Counter.builder(name)
+                .tag("topic", event.getTopic())
+                .tag("event_type", event.getEventType())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.enaya.product_service.infrastructure.persistence.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consultation et rejeu des événements DEAD.
+ *
+ * Le rejeu remet les événements en PENDING par lots (une transaction par lot) sans
+ * jamais les charger en mémoire. Chaque lot reçoit un next_attempt_at décalé de
+ * chunk-size / rate-per-second : un rejeu massif est drainé par le relais au débit
+ * configuré au lieu de saturer Kafka d'un coup. Les lots sont parcourus par curseur
+ * (createdAt, id) sur le primaire : un lot rejoué en parallèle par un autre appel est
+ * simplement dépassé, sans arrêter le parcours.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxReplayService {
+
+    private final OutboxRepositoryImpl outboxRepository;
+
+    @Value("${outbox.replay.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${outbox.replay.rate-per-second:500}")
+    private int ratePerSecond;
+
+    public Page<OutboxEvent> findDeadEvents(String topic, String eventType, String aggregateId, Pageable pageable) {
+        return outboxRepository.findDeadEvents(topic, eventType, aggregateId, pageable);
+    }
+
+    public int replay(String topic, String eventType, String aggregateId, Integer limit) {
+        int remaining = limit != null ? limit : Integer.MAX_VALUE;
+        int replayed = 0;
+        Instant start = Instant.now();
+
+        DeadEventKey cursor = DeadEventKey.START;
+        while (remaining > 0) {
+            List<DeadEventKey> keys = outboxRepository.findDeadEventKeysAfter(
+                    topic, eventType, aggregateId, cursor, Math.min(chunkSize, remaining));
+            if (keys.isEmpty()) {
+                break;
+            }
+            cursor = keys.get(keys.size() - 1);
+
+            List<UUID> ids = keys.stream().map(DeadEventKey::id).toList();
+            long offsetMs = replayed * 1000L / Math.max(ratePerSecond, 1);
+            int requeued = outboxRepository.requeueDeadEvents(ids, start.plusMillis(offsetMs));
+            replayed += requeued;
+            remaining -= requeued;
+        }
+
+        log.info("Replayed {} dead outbox events (topic={}, eventType={}, aggregateId={})",
+                replayed, topic, eventType, aggregateId);
+        return replayed;
+    }
+
+    public boolean replayOne(UUID id) {
+        return outboxRepository.requeueDeadEvents(List.of(id), Instant.now()) > 0;
+    }
+}
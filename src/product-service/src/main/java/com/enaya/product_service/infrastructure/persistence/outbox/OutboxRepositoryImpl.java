@@ -3,12 +3,15 @@ package com.enaya.product_service.infrastructure.persistence.outbox;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -89,17 +92,80 @@ public class OutboxRepositoryImpl {
     }
 
     @Transactional
-    public int markAsFailed(UUID id, OutboxEventStatus newStatus, String error) {
+    public List<OutboxEvent> claimDueEvents(Instant now, int maxRetries, int batchSize, Instant leaseUntil) {
+        List<OutboxEvent> events = outboxEventRepository.findDueEvents(
+                List.of(OutboxEventStatus.PENDING, OutboxEventStatus.FAILED),
+                now,
+                maxRetries,
+                PageRequest.of(0, batchSize)
+        );
+        // Bail : les événements en cours d'envoi ne sont pas repris au cycle suivant
+        events.forEach(event -> event.setNextAttemptAt(leaseUntil));
+        return events;
+    }
+
+    @Transactional
+    public int markAsFailed(UUID id, OutboxEventStatus newStatus, String error, Instant nextAttemptAt) {
         try {
-            return outboxEventRepository.markAsFailed(id, newStatus, error);
+            return outboxEventRepository.markAsFailed(id, newStatus, error, nextAttemptAt);
         } catch (Exception e) {
             log.error("Error marking event as failed: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to mark event as failed", e);
         }
     }
 
+    @Transactional
+    public int markAsDead(UUID id) {
+        try {
+            return outboxEventRepository.markAsDead(id);
+        } catch (Exception e) {
+            log.error("Error marking event as dead: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to mark event as dead", e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OutboxEvent> findDeadEvents(String topic, String eventType, String aggregateId, Pageable pageable) {
+        return outboxEventRepository.findDeadEvents(topic, eventType, aggregateId, pageable);
+    }
+
+    // Lu sur le primaire, comme requeueDeadEvents : un réplica en retard reverrait les lots déjà rejoués
+    @Transactional
+    public List<DeadEventKey> findDeadEventKeysAfter(String topic, String eventType, String aggregateId,
+                                                     DeadEventKey after, int limit) {
+        return outboxEventRepository.findDeadEventKeysAfter(
+                topic, eventType, aggregateId, after.createdAt(), after.id(), PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public int requeueDeadEvents(List<UUID> ids, Instant nextAttemptAt) {
+        try {
+            return outboxEventRepository.requeueDeadEvents(ids, nextAttemptAt);
+        } catch (Exception e) {
+            log.error("Error requeueing dead events: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to requeue dead events", e);
+        }
+    }
+
     @Transactional(readOnly = true)
     public long countByStatus(OutboxEventStatus status) {
         return outboxEventRepository.countByStatus(status);
     }
-} 
\ No newline at end of file
+
+    @Transactional(readOnly = true)
+    public Map<OutboxEventStatus, Long> countGroupedByStatus() {
+        Map<OutboxEventStatus, Long> counts = new EnumMap<>(OutboxEventStatus.class);
+        for (OutboxEventStatus status : OutboxEventStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : outboxEventRepository.countGroupedByStatus()) {
+            counts.put((OutboxEventStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Instant> findOldestCreatedAt(OutboxEventStatus status) {
+        return Optional.ofNullable(outboxEventRepository.findOldestCreatedAtByStatus(status));
+    }
+}
@@ -0,0 +1,34 @@
+package com.enaya.product_service.infrastructure.persistence.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backoff exponentiel avec jitter pour les événements en échec.
+ *
+ * Délai = min(max-delay, initial-delay * 2^(retryCount - 1)), dont la moitié est fixe
+ * et l'autre moitié aléatoire ("equal jitter") : les événements tombés pendant une
+ * même panne Kafka ne sont pas tous relancés au même instant.
+ */
+@Component
+public class OutboxRetryPolicy {
+
+    private static final int MAX_EXPONENT = 30;
+
+    @Value("${outbox.retry.initial-delay:1000}")
+    private long initialDelayMs;
+
+    @Value("${outbox.retry.max-delay:300000}")
+    private long maxDelayMs;
+
+    public Instant nextAttemptAt(int retryCount) {
+        int exponent = Math.min(Math.max(retryCount - 1, 0), MAX_EXPONENT);
+        long delay = Math.min(maxDelayMs, initialDelayMs * (1L << exponent));
+        long half = delay / 2;
+        long jittered = half + ThreadLocalRandom.current().nextLong(half + 1);
+        return Instant.now().plusMillis(jittered);
+    }
+}
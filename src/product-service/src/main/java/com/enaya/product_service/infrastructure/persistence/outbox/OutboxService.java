@@ -1,7 +1,6 @@
 package com.enaya.product_service.infrastructure.persistence.outbox;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.enaya.product_service.infrastructure.messaging.codec.EventPayloadCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -10,23 +9,34 @@ import org.springframework.stereotype.Service;
 public class OutboxService {
 
     private final OutboxEventRepository outboxEventRepository;
-    private final ObjectMapper objectMapper;
+    private final EventPayloadCodec payloadCodec;
 
     public void createAndSaveEvent(String aggregateId, String aggregateType, String eventType, String topic, Object payload) {
-        try {
-            String jsonPayload = objectMapper.writeValueAsString(payload);
-            OutboxEvent outboxEvent = OutboxEvent.builder()
-                    .aggregateId(aggregateId)
-                    .aggregateType(aggregateType)
-                    .eventType(eventType)
-                    .topic(topic)
-                    .payload(jsonPayload)
-                    .status(OutboxEventStatus.PENDING)
-                    .retryCount(0)
-                    .build();
-            outboxEventRepository.save(outboxEvent);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize event payload", e);
-        }
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .aggregateId(aggregateId)
+                .aggregateType(aggregateType)
+                .eventType(eventType)
+                .topic(topic)
+                .payload(payloadCodec.encode(payload))
+                .status(OutboxEventStatus.PENDING)
+                .retryCount(0)
+                .build();
+        outboxEventRepository.save(outboxEvent);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Enregistre une tombstone (valeur nulle) : sur un topic compacté, elle efface la clé.
+     */
+    public void createAndSaveTombstone(String aggregateId, String aggregateType, String eventType, String topic) {
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .aggregateId(aggregateId)
+                .aggregateType(aggregateType)
+                .eventType(eventType)
+                .topic(topic)
+                .payload(new byte[0])
+                .status(OutboxEventStatus.PENDING)
+                .retryCount(0)
+                .build();
+        outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -0,0 +1,324 @@
+package com.enaya.product_service.infrastructure.persistence.projection;
+
+import com.enaya.product_service.domain.model.product.Product;
+import com.enaya.product_service.domain.model.product.ProductVariant;
+import com.enaya.product_service.infrastructure.persistence.jpa.ProductJpaRepository;
+import com.enaya.product_service.infrastructure.persistence.jpa.ProductVariantJpaRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Filtres de Bloom des SKU produits et variantes, placés devant les contrôles d'existence en base.
+ *
+ * Un SKU absent du filtre n'existe pas : la réponse est donnée sans requête. Sinon, la recherche indexée
+ * en base tranche. Les filtres sont construits au démarrage par un scan en streaming, reconstruits
+ * périodiquement (les SKU supprimés ou renommés y restent et font monter le taux de faux positifs)
+ * et alimentés par les écritures de ProductRepositoryImpl, ProductVariantRepositoryImpl et ProductBulkWriter.
+ * Seules les écritures de cette instance sont vues entre deux reconstructions : la contrainte d'unicité
+ * sur sku reste le dernier rempart. Tant qu'un filtre n'est pas construit, tout passe par la base.
+ *
+ * Micrometer : sku.filter.lookups (tags kind, result = absent | present | false_positive),
+ * sku.filter.false_positive_rate (observé) et sku.filter.estimated_false_positive_rate (d'après le remplissage).
+ */
+@Slf4j
+@Component
+public class SkuExistenceIndex {
+
+    private final ProductJpaRepository productJpaRepository;
+    private final ProductVariantJpaRepository variantJpaRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private final SkuFilter products = new SkuFilter("product");
+    private final SkuFilter variants = new SkuFilter("variant");
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public SkuExistenceIndex(ProductJpaRepository productJpaRepository,
+                             ProductVariantJpaRepository variantJpaRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${product.sku-filter.enabled:true}") boolean enabled,
+                             @Value("${product.sku-filter.expected-insertions:1000000}") long expectedInsertions,
+                             @Value("${product.sku-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.productJpaRepository = productJpaRepository;
+        this.variantJpaRepository = variantJpaRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        products.bindTo(meterRegistry);
+        variants.bindTo(meterRegistry);
+    }
+
+    /**
+     * Construit de nouveaux filtres puis les substitue aux anciens, qui continuent de répondre pendant le scan.
+     * Ignoré si une construction est déjà en cours.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${product.sku-filter.rebuild-interval:3600000}",
+            initialDelayString = "${product.sku-filter.rebuild-interval:3600000}")
+    @Transactional(readOnly = true)
+    public void build() {
+        if (!enabled || !buildLock.tryLock()) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            products.beginBuild(new BloomFilter(capacity(productJpaRepository.count()), falsePositiveRate));
+            variants.beginBuild(new BloomFilter(capacity(variantJpaRepository.count()), falsePositiveRate));
+            try (Stream<String> skus = productJpaRepository.streamSkus()) {
+                skus.forEach(products::seed);
+            }
+            try (Stream<String> skus = variantJpaRepository.streamSkus()) {
+                skus.forEach(variants::seed);
+            }
+            long durationMs = System.currentTimeMillis() - start;
+            products.publish(durationMs);
+            variants.publish(durationMs);
+            log.info("SKU bloom filters built: {} product SKUs, {} variant SKUs, in {} ms",
+                    products.lastBuildEntries, variants.lastBuildEntries, durationMs);
+        } catch (Exception e) {
+            products.abortBuild();
+            variants.abortBuild();
+            log.error("Failed to build SKU bloom filters, existence checks stay on the database: {}", e.getMessage(), e);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    // Lectures
+
+    public boolean productSkuExists(String sku, Predicate<String> database) {
+        return products.exists(sku, database);
+    }
+
+    public boolean variantSkuExists(String sku, Predicate<String> database) {
+        return variants.exists(sku, database);
+    }
+
+    public Set<String> existingProductSkus(Set<String> skus, Function<Set<String>, Set<String>> database) {
+        return products.existing(skus, database);
+    }
+
+    public Set<String> existingVariantSkus(Set<String> skus, Function<Set<String>, Set<String>> database) {
+        return variants.existing(skus, database);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("products", products.stats());
+        stats.put("variants", variants.stats());
+        return stats;
+    }
+
+    // Écritures : le SKU est ajouté tout de suite, puis de nouveau après commit pour qu'une
+    // reconstruction dont le scan n'a pas vu la ligne non encore validée la reçoive quand même
+
+    public void onProductSaved(Product product) {
+        if (product.getSku() != null) {
+            products.add(product.getSku());
+        }
+        if (product.getVariants() != null) {
+            product.getVariants().forEach(this::onVariantSaved);
+        }
+    }
+
+    public void onVariantSaved(ProductVariant variant) {
+        if (variant.getSku() != null) {
+            variants.add(variant.getSku());
+        }
+    }
+
+    // Import en masse : appelé depuis la synchronisation afterCommit de l'appelant, sans ajout anticipé
+    public void onProductsCommitted(List<Product> saved) {
+        saved.forEach(product -> {
+            if (product.getSku() != null) {
+                products.put(product.getSku());
+            }
+            if (product.getVariants() != null) {
+                product.getVariants().stream()
+                        .map(ProductVariant::getSku)
+                        .filter(Objects::nonNull)
+                        .forEach(variants::put);
+            }
+        });
+    }
+
+    // Interne
+
+    private long capacity(long rows) {
+        // Marge pour la croissance du catalogue jusqu'à la prochaine reconstruction
+        return Math.max(expectedInsertions, rows * 2);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static final class SkuFilter {
+
+        private final String kind;
+        private volatile BloomFilter current;    // null tant que non construit
+        private volatile BloomFilter building;   // reçoit aussi les écritures pendant une reconstruction
+        private final LongAdder absent = new LongAdder();
+        private final LongAdder present = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+        private long buildingEntries;
+        private volatile long lastBuildEntries;
+        private volatile long lastBuildDurationMs;
+        private volatile Instant lastBuiltAt;
+
+        SkuFilter(String kind) {
+            this.kind = kind;
+        }
+
+        void bindTo(MeterRegistry registry) {
+            lookupCounter(registry, "absent", absent);
+            lookupCounter(registry, "present", present);
+            lookupCounter(registry, "false_positive", falsePositives);
+            Gauge.builder("sku.filter.false_positive_rate", this, SkuFilter::observedFalsePositiveRate)
+                    .description("Share of absent SKUs that the bloom filter reported as possibly present")
+                    .tag("kind", kind)
+                    .register(registry);
+            Gauge.builder("sku.filter.estimated_false_positive_rate", this, SkuFilter::estimatedFalsePositiveRate)
+                    .description("False positive rate expected from the bloom filter fill ratio")
+                    .tag("kind", kind)
+                    .register(registry);
+        }
+
+        private void lookupCounter(MeterRegistry registry, String result, LongAdder adder) {
+            FunctionCounter.builder("sku.filter.lookups", adder, LongAdder::doubleValue)
+                    .description("SKU existence checks answered by the bloom filter or confirmed in database")
+                    .tag("kind", kind)
+                    .tag("result", result)
+                    .register(registry);
+        }
+
+        boolean exists(String sku, Predicate<String> database) {
+            BloomFilter filter = current;
+            if (filter == null) {
+                return database.test(sku);
+            }
+            if (!filter.mightContain(sku)) {
+                absent.increment();
+                return false;
+            }
+            boolean found = database.test(sku);
+            (found ? present : falsePositives).increment();
+            return found;
+        }
+
+        Set<String> existing(Set<String> skus, Function<Set<String>, Set<String>> database) {
+            BloomFilter filter = current;
+            if (filter == null || skus.isEmpty()) {
+                return database.apply(skus);
+            }
+            Set<String> candidates = skus.stream().filter(filter::mightContain).collect(Collectors.toSet());
+            absent.add(skus.size() - candidates.size());
+            if (candidates.isEmpty()) {
+                return Set.of();
+            }
+            Set<String> found = database.apply(candidates);
+            present.add(found.size());
+            falsePositives.add(candidates.size() - found.size());
+            return found;
+        }
+
+        void add(String sku) {
+            put(sku);
+            afterCommit(() -> put(sku));
+        }
+
+        private void put(String sku) {
+            BloomFilter filter = current;
+            if (filter != null) {
+                filter.put(sku);
+            }
+            BloomFilter next = building;
+            if (next != null) {
+                next.put(sku);
+            }
+        }
+
+        void beginBuild(BloomFilter filter) {
+            buildingEntries = 0;
+            building = filter;
+        }
+
+        void seed(String sku) {
+            building.put(sku);
+            buildingEntries++;
+        }
+
+        void publish(long durationMs) {
+            current = building;
+            building = null;
+            lastBuildEntries = buildingEntries;
+            lastBuildDurationMs = durationMs;
+            lastBuiltAt = Instant.now();
+        }
+
+        void abortBuild() {
+            building = null;
+        }
+
+        double observedFalsePositiveRate() {
+            long negatives = absent.sum() + falsePositives.sum();
+            return negatives == 0 ? 0.0 : (double) falsePositives.sum() / negatives;
+        }
+
+        double estimatedFalsePositiveRate() {
+            BloomFilter filter = current;
+            return filter != null ? filter.estimatedFalsePositiveRate() : 0.0;
+        }
+
+        Map<String, Object> stats() {
+            BloomFilter filter = current;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", filter != null);
+            if (filter != null) {
+                stats.put("bits", filter.bitCount());
+                stats.put("hashFunctions", filter.hashCount());
+                stats.put("estimatedFalsePositiveRate", filter.estimatedFalsePositiveRate());
+            }
+            stats.put("lastBuildEntries", lastBuildEntries);
+            stats.put("lastBuildDurationMs", lastBuildDurationMs);
+            stats.put("lastBuiltAt", lastBuiltAt != null ? lastBuiltAt.toString() : null);
+            stats.put("absent", absent.sum());
+            stats.put("present", present.sum());
+            stats.put("falsePositives", falsePositives.sum());
+            stats.put("observedFalsePositiveRate", observedFalsePositiveRate());
+            return stats;
+        }
+    }
+}
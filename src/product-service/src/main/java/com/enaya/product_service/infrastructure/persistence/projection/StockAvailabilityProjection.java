@@ -0,0 +1,322 @@
+package com.enaya.product_service.infrastructure.persistence.projection;
+
+import com.enaya.product_service.domain.model.product.Product;
+import com.enaya.product_service.domain.model.product.ProductVariant;
+import com.enaya.product_service.domain.repository.StockAvailabilityView;
+import com.enaya.product_service.infrastructure.persistence.jpa.ProductJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Disponibilité des produits en mémoire : statut par variante et bit "au moins une
+ * variante en stock" par produit.
+ *
+ * Chaque UUID reçoit un identifiant interne dense ; les statuts sont stockés dans des
+ * tableaux primitifs indexés par ces identifiants et les produits en stock dans un BitSet.
+ * La projection est construite au démarrage par un scan en streaming, puis tenue à jour
+ * après commit par les écritures de ProductRepositoryImpl (save, delete, updateVariant*StockStatus).
+ * Ces écritures ne couvrent que cette instance : la projection est reconstruite périodiquement
+ * (stock.availability.rebuild-interval) dans un nouvel état, substitué à l'ancien en fin de scan.
+ * Entre deux reconstructions, elle peut ignorer les changements faits par les autres instances :
+ * c'est une indication, les réponses aux clients restent calculées par la base ou l'index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockAvailabilityProjection implements StockAvailabilityView {
+
+    private static final byte REMOVED = 0;
+    private static final ProductVariant.StockStatus[] STATUSES = ProductVariant.StockStatus.values();
+    private static final byte IN_STOCK = encode(ProductVariant.StockStatus.IN_STOCK);
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductJpaRepository productJpaRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private State current = new State();   // protégé par lock
+    private State building;                // reçoit aussi les écritures pendant une reconstruction
+    private volatile boolean ready;
+
+    // Lu sur le primaire : un réplica en retard reconstruirait un état déjà périmé
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${stock.availability.rebuild-interval:600000}",
+            initialDelayString = "${stock.availability.rebuild-interval:600000}")
+    @Transactional
+    public void build() {
+        if (!buildLock.tryLock()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        State next = new State();
+        withWriteLock(() -> building = next);
+        try {
+            long[] count = {0};
+            try (Stream<Object[]> rows = productJpaRepository.streamVariantStockStatuses()) {
+                rows.forEach(row -> {
+                    withWriteLock(() -> next.seed((UUID) row[0], (UUID) row[1], (ProductVariant.StockStatus) row[2]));
+                    count[0]++;
+                });
+            }
+            withWriteLock(() -> {
+                current = next;
+                building = null;
+            });
+            ready = true;
+            log.info("Stock availability projection built: {} variants, {} products in stock, in {} ms",
+                    count[0], countInStockProducts(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            withWriteLock(() -> building = null);
+            log.error("Failed to build stock availability projection, {}: {}",
+                    ready ? "keeping the previous state" : "falling back to database", e.getMessage(), e);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    // Lectures
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public boolean contains(UUID productId) {
+        lock.readLock().lock();
+        try {
+            return current.productIds.containsKey(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isProductInStock(UUID productId) {
+        lock.readLock().lock();
+        try {
+            Integer product = current.productIds.get(productId);
+            return product != null && current.inStockProducts.get(product);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ProductVariant.StockStatus getVariantStatus(UUID variantId) {
+        lock.readLock().lock();
+        try {
+            Integer variant = current.variantIds.get(variantId);
+            return variant != null ? decode(current.variantStatuses[variant]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long countInStockProducts() {
+        lock.readLock().lock();
+        try {
+            return current.inStockProducts.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Écritures : appliquées après commit si une transaction est active
+
+    public void onVariantStatusChanged(UUID productId, UUID variantId, ProductVariant.StockStatus status) {
+        afterCommit(() -> apply(state -> state.setStatus(state.productIndex(productId), state.variantIndex(variantId), status)));
+    }
+
+    public void onAllVariantsStatusChanged(UUID productId, ProductVariant.StockStatus status) {
+        afterCommit(() -> apply(state -> {
+            int product = state.productIndex(productId);
+            state.forEachVariantOf(product, variant -> state.setStatus(product, variant, status));
+        }));
+    }
+
+    public void onProductSaved(Product product) {
+        if (product.getId() == null || product.getVariants() == null) {
+            return;
+        }
+        Map<UUID, ProductVariant.StockStatus> statuses = statuses(product);
+        UUID productId = product.getId();
+        afterCommit(() -> apply(state -> replaceVariants(state, productId, statuses)));
+    }
+
+    /**
+     * Variante ensembliste de {@link #onProductSaved}, appliquée immédiatement sous un seul verrou :
+     * l'appelant l'invoque depuis sa propre synchronisation afterCommit.
+     */
+    public void onProductsCommitted(List<Product> products) {
+        Map<UUID, Map<UUID, ProductVariant.StockStatus>> statusesByProduct = new LinkedHashMap<>();
+        products.stream()
+                .filter(product -> product.getId() != null && product.getVariants() != null)
+                .forEach(product -> statusesByProduct.put(product.getId(), statuses(product)));
+        if (!statusesByProduct.isEmpty()) {
+            apply(state -> statusesByProduct.forEach((productId, statuses) -> replaceVariants(state, productId, statuses)));
+        }
+    }
+
+    private static Map<UUID, ProductVariant.StockStatus> statuses(Product product) {
+        Map<UUID, ProductVariant.StockStatus> statuses = new HashMap<>();
+        product.getVariants().forEach(v -> {
+            if (v.getId() != null) {
+                statuses.put(v.getId(), v.getStockStatus());
+            }
+        });
+        return statuses;
+    }
+
+    private static void replaceVariants(State state, UUID productId, Map<UUID, ProductVariant.StockStatus> statuses) {
+        int productIdx = state.productIndex(productId);
+        // Les variantes retirées de l'agrégat ne comptent plus
+        state.forEachVariantOf(productIdx, variant -> state.setStatus(productIdx, variant, null));
+        statuses.forEach((variantId, status) -> state.setStatus(productIdx, state.variantIndex(variantId), status));
+    }
+
+    public void onProductDeleted(UUID productId) {
+        afterCommit(() -> apply(state -> {
+            Integer product = state.productIds.get(productId);
+            if (product != null) {
+                state.forEachVariantOf(product, variant -> state.setStatus(product, variant, null));
+            }
+        }));
+    }
+
+    // Interne
+
+    // L'écriture vaut pour l'état courant et, pendant une reconstruction, pour le nouvel état
+    private void apply(Consumer<State> change) {
+        withWriteLock(() -> {
+            change.accept(current);
+            if (building != null) {
+                change.accept(building);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static byte encode(ProductVariant.StockStatus status) {
+        return (byte) (status.ordinal() + 1);
+    }
+
+    private static ProductVariant.StockStatus decode(byte value) {
+        return value == REMOVED ? null : STATUSES[value - 1];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Identifiants denses et tableaux primitifs d'une version de la projection.
+     */
+    private static final class State {
+
+        private final Map<UUID, Integer> productIds = new HashMap<>();
+        private final Map<UUID, Integer> variantIds = new HashMap<>();
+        private byte[] variantStatuses = new byte[INITIAL_CAPACITY];   // ordinal + 1, 0 = supprimée
+        private int[] variantProducts = new int[INITIAL_CAPACITY];
+        private int[] inStockVariantCounts = new int[INITIAL_CAPACITY];
+        private final BitSet inStockProducts = new BitSet();
+
+        // Pendant le scan, un événement déjà appliqué est plus récent que la ligne lue
+        private void seed(UUID productId, UUID variantId, ProductVariant.StockStatus status) {
+            if (!variantIds.containsKey(variantId)) {
+                setStatus(productIndex(productId), variantIndex(variantId), status);
+            }
+        }
+
+        private void setStatus(int product, int variant, ProductVariant.StockStatus status) {
+            int previousProduct = variantProducts[variant];
+            if (previousProduct >= 0 && variantStatuses[variant] == IN_STOCK) {
+                adjustInStockCount(previousProduct, -1);
+            }
+
+            variantProducts[variant] = product;
+            variantStatuses[variant] = status != null ? encode(status) : REMOVED;
+
+            if (status == ProductVariant.StockStatus.IN_STOCK) {
+                adjustInStockCount(product, 1);
+            }
+        }
+
+        private void adjustInStockCount(int product, int delta) {
+            inStockVariantCounts[product] += delta;
+            inStockProducts.set(product, inStockVariantCounts[product] > 0);
+        }
+
+        // Parcours linéaire des tableaux primitifs : réservé aux changements globaux, plus rares
+        private void forEachVariantOf(int product, IntConsumer action) {
+            int size = variantIds.size();
+            for (int variant = 0; variant < size; variant++) {
+                if (variantProducts[variant] == product && variantStatuses[variant] != REMOVED) {
+                    action.accept(variant);
+                }
+            }
+        }
+
+        private int productIndex(UUID productId) {
+            return productIds.computeIfAbsent(productId, id -> {
+                int index = productIds.size();
+                if (index >= inStockVariantCounts.length) {
+                    inStockVariantCounts = Arrays.copyOf(inStockVariantCounts, index * 2);
+                }
+                return index;
+            });
+        }
+
+        private int variantIndex(UUID variantId) {
+            return variantIds.computeIfAbsent(variantId, id -> {
+                int index = variantIds.size();
+                if (index >= variantStatuses.length) {
+                    variantStatuses = Arrays.copyOf(variantStatuses, index * 2);
+                    int[] products = Arrays.copyOf(variantProducts, index * 2);
+                    Arrays.fill(products, index, products.length, -1);
+                    variantProducts = products;
+                }
+                variantProducts[index] = -1;
+                return index;
+            });
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.enaya.product_service.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Filtrage exact sur plusieurs attributs (ET entre les paires nom/valeur) à partir de la table
+ * product_attributes utilisée comme index inversé.
+ *
+ * L'intersection est faite par PostgreSQL : les lignes des paires demandées sont lues sur
+ * idx_product_attributes_name_value_product puis regroupées par produit, et seuls les produits
+ * présents pour toutes les paires sont retenus. La condition est injectée dans la requête paginée
+ * de l'appelant : aucune liste d'identifiants ne transite par l'application ni par les paramètres JDBC.
+ */
+@Slf4j
+@Component
+public class ProductAttributeIndex {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Condition sur p.id (alias products p) ; vide si aucun produit ne peut correspondre.
+     */
+    public Optional<AttributeFilter> filterMatchingAll(Map<String, String> attributes) {
+        if (attributes == null || attributes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Même normalisation que ProductAttribute ; un nom n'a qu'une valeur par produit
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            if (attribute.getKey() == null || attribute.getValue() == null) {
+                return Optional.empty();
+            }
+            pairs.put(attribute.getKey().trim().toLowerCase(), attribute.getValue().trim());
+        }
+
+        StringBuilder values = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        int index = 0;
+        for (Map.Entry<String, String> pair : pairs.entrySet()) {
+            values.append(index > 0 ? ", " : "").append("(:attrName").append(index).append(", :attrValue").append(index).append(")");
+            params.put("attrName" + index, pair.getKey());
+            params.put("attrValue" + index, pair.getValue());
+            index++;
+        }
+        params.put("attrPairs", pairs.size());
+
+        String condition = "p.id IN (SELECT pa.product_id FROM product_attributes pa " +
+                "WHERE (pa.attribute_name, pa.attribute_value) IN (" + values + ") " +
+                "GROUP BY pa.product_id HAVING COUNT(DISTINCT pa.attribute_name) = :attrPairs)";
+        return Optional.of(new AttributeFilter(condition, params));
+    }
+
+    public List<UUID> findProductIdsMatchingAll(Map<String, String> attributes) {
+        return filterMatchingAll(attributes).map(filter -> {
+            Query query = entityManager.createNativeQuery(
+                    "SELECT p.id FROM products p WHERE " + filter.condition() + " ORDER BY p.id", UUID.class);
+            filter.params().forEach(query::setParameter);
+            @SuppressWarnings("unchecked")
+            List<UUID> ids = query.getResultList();
+            log.debug("Attribute filter {} matched {} products", attributes, ids.size());
+            return ids;
+        }).orElse(List.of());
+    }
+
+    public record AttributeFilter(String condition, Map<String, Object> params) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.enaya.product_service.infrastructure.persistence.repository;
+
+import com.enaya.product_service.domain.model.collection.Collection;
+import com.enaya.product_service.domain.model.product.Product;
+import com.enaya.product_service.infrastructure.messaging.snapshot.ProductSnapshotPublisher;
+import com.enaya.product_service.infrastructure.persistence.jpa.CategoryJpaRepository;
+import com.enaya.product_service.infrastructure.persistence.jpa.CollectionJpaRepository;
+import com.enaya.product_service.infrastructure.persistence.jpa.ProductJpaRepository;
+import com.enaya.product_service.infrastructure.persistence.jpa.ProductVariantJpaRepository;
+import com.enaya.product_service.infrastructure.persistence.projection.SkuExistenceIndex;
+import com.enaya.product_service.infrastructure.persistence.projection.StockAvailabilityProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Écritures et contrôles ensemblistes de l'import en masse : une requête par lot pour l'unicité des SKU
+ * et l'existence des catégories et collections, puis insertion en batch JDBC sans flush par produit.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductBulkWriter {
+
+    private final ProductJpaRepository productJpaRepository;
+    private final ProductVariantJpaRepository variantJpaRepository;
+    private final CategoryJpaRepository categoryJpaRepository;
+    private final CollectionJpaRepository collectionJpaRepository;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final SkuExistenceIndex skuExistenceIndex;
+    private final ProductSnapshotPublisher productSnapshotPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // Seuls les SKU que le filtre de Bloom ne sait pas exclure partent dans la clause IN
+    public Set<String> findExistingProductSkus(Set<String> skus) {
+        return skuExistenceIndex.existingProductSkus(skus,
+                candidates -> candidates.isEmpty() ? Set.of() : new HashSet<>(productJpaRepository.findExistingSkus(candidates)));
+    }
+
+    public Set<String> findExistingVariantSkus(Set<String> skus) {
+        return skuExistenceIndex.existingVariantSkus(skus,
+                candidates -> candidates.isEmpty() ? Set.of() : new HashSet<>(variantJpaRepository.findExistingSkus(candidates)));
+    }
+
+    public Set<UUID> findExistingCategoryIds(Set<UUID> ids) {
+        return ids.isEmpty() ? Set.of() : new HashSet<>(categoryJpaRepository.findExistingIds(ids));
+    }
+
+    public Map<UUID, Collection> findCollections(Set<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return collectionJpaRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Collection::getId, Function.identity()));
+    }
+
+    public List<Product> findByIds(List<UUID> ids) {
+        return productJpaRepository.findByIdIn(ids);
+    }
+
+    /**
+     * Insère les produits dans la transaction courante. Le cache de second niveau n'est pas alimenté :
+     * un import ne doit pas évincer les entrées chaudes du catalogue. Un SKU déjà pris (créé par une autre
+     * instance depuis le contrôle du lot) lève une ProductValidationException.
+     */
+    public void insert(List<Product> products) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        session.setCacheMode(CacheMode.IGNORE);
+
+        try {
+            products.forEach(entityManager::persist);
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            throw SkuConflicts.translate(e, products).orElseThrow(() -> e);
+        }
+        productSnapshotPublisher.onProductsChanged(products.stream().map(Product::getId).toList());
+        afterCommit(() -> {
+            stockAvailabilityProjection.onProductsCommitted(products);
+            skuExistenceIndex.onProductsCommitted(products);
+        });
+    }
+
+    // Une seule synchronisation pour le lot : les index en mémoire ne voient que des lignes validées
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.enaya.product_service.infrastructure.persistence.repository;
+
+import com.enaya.product_service.domain.exception.ProductException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Recherche produits native PostgreSQL, utilisée lorsque Elasticsearch est désactivé.
+ *
+ * Le texte est cherché dans products.search_vector (nom, description et valeurs d'attributs, pondérés A/B/C),
+ * avec correspondance par préfixe, et par similarité trigramme sur le nom pour tolérer les fautes de frappe.
+ * Le classement combine ts_rank et similarity. Colonne, triggers et index : scripts/add-product-fulltext-search.sql.
+ */
+@Slf4j
+@Component
+public class ProductFullTextSearch {
+
+    // Tri explicite autorisé : propriété de l'entité -> colonne
+    private static final Map<String, String> SORTABLE_COLUMNS = Map.of(
+            "name", "p.name",
+            "creationDate", "p.creation_date",
+            "modificationDate", "p.modification_date",
+            "price.amount", "p.price_amount"
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SearchHits search(String text, UUID categoryId, UUID collectionId,
+                             BigDecimal minPrice, BigDecimal maxPrice, boolean inStock,
+                             LocalDateTime date, ProductAttributeIndex.AttributeFilter attributeFilter,
+                             Pageable pageable) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+
+        String tsQuery = toPrefixTsQuery(text);
+        String rank = "0";
+        if (tsQuery != null) {
+            where.append(" AND (p.search_vector @@ to_tsquery('simple', :tsQuery) OR lower(p.name) % :rawText)");
+            rank = "ts_rank(p.search_vector, to_tsquery('simple', :tsQuery)) + similarity(lower(p.name), :rawText)";
+            params.put("tsQuery", tsQuery);
+            params.put("rawText", text.trim().toLowerCase());
+        }
+        if (categoryId != null) {
+            where.append(" AND p.category_id = :categoryId");
+            params.put("categoryId", categoryId);
+        }
+        if (collectionId != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM product_collections pc " +
+                    "WHERE pc.product_id = p.id AND pc.collection_id = :collectionId)");
+            params.put("collectionId", collectionId);
+        }
+        if (minPrice != null && maxPrice != null) {
+            where.append(" AND p.price_amount BETWEEN :minPrice AND :maxPrice");
+            params.put("minPrice", minPrice);
+            params.put("maxPrice", maxPrice);
+        }
+        if (inStock) {
+            where.append(" AND EXISTS (SELECT 1 FROM product_variants v " +
+                    "WHERE v.product_id = p.id AND v.stock_status = 'IN_STOCK')");
+        }
+        if (date != null) {
+            where.append(" AND p.creation_date = :date");
+            params.put("date", date);
+        }
+        if (attributeFilter != null) {
+            where.append(" AND ").append(attributeFilter.condition());
+            params.putAll(attributeFilter.params());
+        }
+
+        Query idQuery = entityManager.createNativeQuery(
+                "SELECT p.id FROM products p" + where + " ORDER BY " + orderBy(pageable, rank) +
+                " LIMIT :limit OFFSET :offset", UUID.class);
+        params.forEach(idQuery::setParameter);
+        idQuery.setParameter("limit", pageable.getPageSize());
+        idQuery.setParameter("offset", pageable.getOffset());
+
+        @SuppressWarnings("unchecked")
+        List<UUID> ids = idQuery.getResultList();
+
+        long total;
+        if (pageable.getOffset() == 0 && ids.size() < pageable.getPageSize()) {
+            total = ids.size();
+        } else {
+            Query countQuery = entityManager.createNativeQuery("SELECT COUNT(*) FROM products p" + where);
+            params.forEach(countQuery::setParameter);
+            total = ((Number) countQuery.getSingleResult()).longValue();
+        }
+
+        log.debug("Database search '{}' matched {} products", text, total);
+        return new SearchHits(ids, total);
+    }
+
+    // Un tri hors liste est refusé (400) plutôt qu'ignoré : la page ne serait pas dans l'ordre demandé
+    private String orderBy(Pageable pageable, String rank) {
+        String explicit = pageable.getSort().stream()
+                .map(order -> {
+                    String column = SORTABLE_COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new ProductException.ProductValidationException("Unsupported sort field: "
+                                + order.getProperty() + " (allowed: " + String.join(", ", new TreeSet<>(SORTABLE_COLUMNS.keySet())) + ")");
+                    }
+                    return column + (order.getDirection() == Sort.Direction.ASC ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", "));
+        return (explicit.isEmpty() ? rank + " DESC" : explicit) + ", p.modification_date DESC, p.id";
+    }
+
+    // "bague or" -> "bague:* & or:*" ; seuls lettres et chiffres sont conservés, la requête ne peut pas être injectée
+    static String toPrefixTsQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        String tsQuery = Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isBlank())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+
+    public record SearchHits(List<UUID> ids, long total) {
+    }
+}
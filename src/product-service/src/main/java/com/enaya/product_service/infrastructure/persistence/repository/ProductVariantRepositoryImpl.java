@@ -3,6 +3,7 @@ package com.enaya.product_service.infrastructure.persistence.repository;
 import com.enaya.product_service.domain.model.product.ProductVariant;
 import com.enaya.product_service.domain.repository.ProductVariantRepository;
 import com.enaya.product_service.infrastructure.persistence.jpa.ProductVariantJpaRepository;
+import com.enaya.product_service.infrastructure.persistence.projection.SkuExistenceIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,10 +18,13 @@ import java.util.UUID;
 public class ProductVariantRepositoryImpl implements ProductVariantRepository {
 
     private final ProductVariantJpaRepository jpaRepository;
+    private final SkuExistenceIndex skuExistenceIndex;
 
     @Override
     public ProductVariant save(ProductVariant variant) {
-        return jpaRepository.save(variant);
+        ProductVariant savedVariant = jpaRepository.save(variant);
+        skuExistenceIndex.onVariantSaved(savedVariant);
+        return savedVariant;
     }
 
     @Override
@@ -45,7 +49,7 @@ public class ProductVariantRepositoryImpl implements ProductVariantRepository {
 
     @Override
     public boolean existsBySku(String sku) {
-        return jpaRepository.existsBySku(sku);
+        return skuExistenceIndex.variantSkuExists(sku, jpaRepository::existsBySku);
     }
 
     @Override
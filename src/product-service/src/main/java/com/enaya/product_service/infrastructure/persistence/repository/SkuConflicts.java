@@ -0,0 +1,66 @@
+package com.enaya.product_service.infrastructure.persistence.repository;
+
+import com.enaya.product_service.domain.exception.ProductException;
+import com.enaya.product_service.domain.model.product.Product;
+import com.enaya.product_service.domain.model.product.ProductVariant;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Traduit une violation d'unicité sur products.sku ou product_variants.sku en erreur de validation.
+ *
+ * Le filtre de SKU ne voit que les écritures de cette instance : un SKU créé ailleurs peut passer le
+ * contrôle préalable et n'être rejeté que par la contrainte. Le SKU en cause est retrouvé dans le
+ * détail PostgreSQL ("Key (sku)=(...)"), que les lots JDBC portent sur l'exception suivante.
+ */
+public final class SkuConflicts {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private SkuConflicts() {
+    }
+
+    public static Optional<ProductException.ProductValidationException> translate(Throwable failure,
+                                                                                 Collection<Product> products) {
+        String detail = uniqueViolationDetail(failure);
+        if (detail == null || !detail.contains("(sku)=(")) {
+            return Optional.empty();
+        }
+        for (Product product : products) {
+            if (mentions(detail, product.getSku())) {
+                return Optional.of(new ProductException.ProductValidationException(
+                        "Product with SKU " + product.getSku() + " already exists"));
+            }
+            if (product.getVariants() != null) {
+                for (ProductVariant variant : product.getVariants()) {
+                    if (mentions(detail, variant.getSku())) {
+                        return Optional.of(new ProductException.ProductValidationException(
+                                "Variant with SKU " + variant.getSku() + " already exists"));
+                    }
+                }
+            }
+        }
+        return Optional.of(new ProductException.ProductValidationException("SKU already exists"));
+    }
+
+    private static boolean mentions(String detail, String sku) {
+        return sku != null && detail.contains("(sku)=(" + sku + ")");
+    }
+
+    private static String uniqueViolationDetail(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                StringBuilder messages = new StringBuilder();
+                boolean unique = false;
+                for (SQLException next = sql; next != null; next = next.getNextException()) {
+                    unique |= UNIQUE_VIOLATION.equals(next.getSQLState());
+                    messages.append(next.getMessage()).append('\n');
+                }
+                return unique ? messages.toString() : null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.enaya.product_service.infrastructure.persistence.routing;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * État de lecture-après-écriture de la requête HTTP en cours.
+ *
+ * Sans état côté serveur : après une écriture, la réponse porte l'en-tête {@link #HEADER} (échéance en
+ * millisecondes epoch). Un client qui le renvoie (opt-in) voit ses lectures servies par le primaire jusqu'à
+ * cette échéance, quelle que soit l'instance qui traite la requête.
+ */
+public final class ReadYourWritesContext {
+
+    public static final String HEADER = "X-Read-Your-Writes-Until";
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    static void open(long pinnedUntil, HttpServletResponse response, long windowMs) {
+        CURRENT.set(new State(pinnedUntil, response, windowMs));
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static boolean isPinnedToPrimary() {
+        State state = CURRENT.get();
+        return state != null && state.pinnedUntil > System.currentTimeMillis();
+    }
+
+    // Appelé à l'ouverture d'une transaction en écriture
+    static void onWrite() {
+        State state = CURRENT.get();
+        if (state == null || state.windowMs <= 0) {
+            return;
+        }
+        long until = System.currentTimeMillis() + state.windowMs;
+        state.pinnedUntil = Math.max(state.pinnedUntil, until);
+        if (!state.response.isCommitted()) {
+            state.response.setHeader(HEADER, String.valueOf(state.pinnedUntil));
+        }
+    }
+
+    private static final class State {
+        private long pinnedUntil;
+        private final HttpServletResponse response;
+        private final long windowMs;
+
+        private State(long pinnedUntil, HttpServletResponse response, long windowMs) {
+            this.pinnedUntil = pinnedUntil;
+            this.response = response;
+            this.windowMs = windowMs;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.enaya.product_service.infrastructure.persistence.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lit l'échéance de lecture-après-écriture renvoyée par le client et la rend visible au routage.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final long windowMs;
+
+    public ReadYourWritesFilter(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long pinnedUntil = 0;
+        String header = request.getHeader(ReadYourWritesContext.HEADER);
+        if (header != null) {
+            try {
+                // Borné à la fenêtre configurée : un client ne peut pas s'épingler au primaire indéfiniment
+                pinnedUntil = Math.min(Long.parseLong(header.trim()), System.currentTimeMillis() + windowMs);
+            } catch (NumberFormatException ignored) {
+                // En-tête invalide : lecture sur réplica
+            }
+        }
+
+        ReadYourWritesContext.open(pinnedUntil, response, windowMs);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.close();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.enaya.product_service.infrastructure.persistence.routing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas en lecture (datasource.replicas.*). Les transactions readOnly y sont envoyées tant qu'un
+ * réplica est sain et que son retard reste sous max-lag ; sinon elles retombent sur le primaire.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.replicas")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> nodes = new ArrayList<>();
+
+    // Retard de réplication au-delà duquel un réplica est écarté
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    // Fenêtre pendant laquelle un client ayant écrit relit sur le primaire (0 = désactivé)
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
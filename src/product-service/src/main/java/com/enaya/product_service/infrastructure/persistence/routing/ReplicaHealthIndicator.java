@@ -0,0 +1,25 @@
+package com.enaya.product_service.infrastructure.persistence.routing;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Indicateur "replicas" : toujours UP (les lectures retombent sur le primaire), avec l'état de chaque réplica.
+ */
+public class ReplicaHealthIndicator implements HealthIndicator {
+
+    private final ReplicaHealthMonitor healthMonitor;
+
+    public ReplicaHealthIndicator(ReplicaHealthMonitor healthMonitor) {
+        this.healthMonitor = healthMonitor;
+    }
+
+    @Override
+    public Health health() {
+        boolean anyHealthy = healthMonitor.nextHealthyReplica() != null;
+        return Health.up()
+                .withDetail("routing", anyHealthy ? "replicas" : "primary-fallback")
+                .withDetail("replicas", healthMonitor.describe())
+                .build();
+    }
+}
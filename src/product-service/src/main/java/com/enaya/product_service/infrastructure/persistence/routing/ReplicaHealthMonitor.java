@@ -0,0 +1,153 @@
+package com.enaya.product_service.infrastructure.persistence.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sonde périodiquement chaque réplica et mesure son retard de réplication.
+ *
+ * Un réplica qui a rejoué tout le WAL reçu est considéré à jour même si la dernière transaction
+ * rejouée est ancienne (primaire inactif), à condition que son récepteur WAL soit en streaming :
+ * un réplica déconnecté a lui aussi rejoué tout ce qu'il a reçu. Hors streaming, le retard est
+ * l'âge de la dernière transaction rejouée. Le statut du récepteur n'est visible qu'avec le rôle
+ * pg_monitor (ou pg_read_all_stats) ; sans lui, seul l'âge de la dernière transaction est utilisé.
+ */
+@Slf4j
+public class ReplicaHealthMonitor implements AutoCloseable {
+
+    private static final String LAG_QUERY =
+            "SELECT pg_is_in_recovery(), " +
+            "  EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming'), " +
+            "  COALESCE(pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn(), false), " +
+            "  EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000";
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagMs;
+    private final Map<String, ReplicaState> states = new LinkedHashMap<>();
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-health").daemon().factory());
+
+    public ReplicaHealthMonitor(Map<String, DataSource> replicas, ReplicaDataSourceProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.maxLagMs = properties.getMaxLag().toMillis();
+        replicas.keySet().forEach(name -> {
+            ReplicaState state = new ReplicaState();
+            states.put(name, state);
+            Gauge.builder("datasource.replica.lag", state, s -> s.lagMs)
+                    .description("Replication lag of the read replica")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", state, s -> s.healthy ? 1 : 0)
+                    .description("Whether the read replica receives read-only traffic")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+
+        long interval = properties.getHealthCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Réplica sain suivant (tourniquet), ou null si aucun n'est utilisable.
+     */
+    public String nextHealthyReplica() {
+        List<String> healthy = states.entrySet().stream()
+                .filter(entry -> entry.getValue().healthy)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        return healthy.get(Math.floorMod(cursor.getAndIncrement(), healthy.size()));
+    }
+
+    public Map<String, DataSource> replicaDataSources() {
+        return replicas;
+    }
+
+    public Map<String, Map<String, Object>> describe() {
+        Map<String, Map<String, Object>> details = new LinkedHashMap<>();
+        states.forEach((name, state) -> details.put(name, Map.of(
+                "healthy", state.healthy,
+                "lagMs", state.lagMs,
+                "streaming", state.streaming,
+                "lastError", state.lastError != null ? state.lastError : "")));
+        return details;
+    }
+
+    void checkAll() {
+        replicas.forEach((name, dataSource) -> {
+            ReplicaState state = states.get(name);
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                Long lagMs;
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    boolean inRecovery = rs.getBoolean(1);
+                    state.streaming = rs.getBoolean(2);
+                    boolean caughtUp = rs.getBoolean(3);
+                    long replayAgeMs = rs.getLong(4);
+                    boolean replayed = !rs.wasNull();
+                    if (!inRecovery || (state.streaming && caughtUp)) {
+                        lagMs = 0L;
+                    } else {
+                        lagMs = replayed ? Math.max(0, replayAgeMs) : null;
+                    }
+                }
+                boolean healthy = lagMs != null && lagMs <= maxLagMs;
+                state.lagMs = lagMs != null ? lagMs : -1;
+                if (healthy != state.healthy) {
+                    log.info("Read replica {} is now {} (lag: {} ms, streaming: {})",
+                            name, healthy ? "in service" : "out of service", state.lagMs, state.streaming);
+                }
+                state.healthy = healthy;
+                // Sans streaming ni transaction rejouée, le retard ne peut pas être établi
+                state.lastError = lagMs == null ? "WAL receiver not streaming and no transaction replayed" : null;
+            } catch (Exception e) {
+                if (state.healthy) {
+                    log.warn("Read replica {} is unreachable, reads fall back to the primary: {}", name, e.getMessage());
+                }
+                state.healthy = false;
+                state.lastError = e.getMessage();
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        replicas.values().forEach(dataSource -> {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("Error closing replica pool: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static class ReplicaState {
+        private volatile boolean healthy;
+        private volatile long lagMs;
+        private volatile boolean streaming;
+        private volatile String lastError;
+    }
+}
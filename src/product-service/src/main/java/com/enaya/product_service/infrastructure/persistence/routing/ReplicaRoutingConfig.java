@@ -0,0 +1,89 @@
+package com.enaya.product_service.infrastructure.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Routage primaire / réplicas, actif avec datasource.replicas.enabled=true.
+ * Sans cette propriété, la DataSource auto-configurée par Spring Boot est utilisée telle quelle.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaHealthMonitor replicaHealthMonitor(ReplicaDataSourceProperties properties,
+                                                     DataSourceProperties dataSourceProperties,
+                                                     MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReplicaDataSourceProperties.Replica node = properties.getNodes().get(i);
+            String name = node.getName() != null ? node.getName() : "replica-" + i;
+
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(node.getUrl());
+            dataSource.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.getUsername());
+            dataSource.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.getPassword());
+            dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            // Un réplica indisponible au démarrage ne doit pas empêcher le service de démarrer
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.put(name, dataSource);
+        }
+        return new ReplicaHealthMonitor(replicas, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaHealthMonitor replicaHealthMonitor,
+                                 ReplicaDataSourceProperties properties) {
+        Map<Object, Object> targets = new HashMap<>(replicaHealthMonitor.replicaDataSources());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaHealthMonitor);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReplicaHealthIndicator replicasHealthIndicator(ReplicaHealthMonitor replicaHealthMonitor) {
+        return new ReplicaHealthIndicator(replicaHealthMonitor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaDataSourceProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesWindow().toMillis()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
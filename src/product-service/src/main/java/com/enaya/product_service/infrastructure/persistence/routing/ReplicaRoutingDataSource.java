@@ -0,0 +1,38 @@
+package com.enaya.product_service.infrastructure.persistence.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envoie les transactions readOnly vers un réplica sain, le reste vers le primaire.
+ *
+ * Doit être enveloppé dans un LazyConnectionDataSourceProxy : la connexion n'est alors demandée
+ * qu'après que le gestionnaire de transactions a positionné l'indicateur readOnly.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaHealthMonitor healthMonitor;
+
+    public ReplicaRoutingDataSource(ReplicaHealthMonitor healthMonitor) {
+        this.healthMonitor = healthMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean transactionActive = TransactionSynchronizationManager.isActualTransactionActive();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+
+        if (transactionActive && !readOnly) {
+            ReadYourWritesContext.onWrite();
+            return PRIMARY;
+        }
+        if (!readOnly || ReadYourWritesContext.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+
+        String replica = healthMonitor.nextHealthyReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+}
@@ -1,6 +1,7 @@
 package com.enaya.product_service.presentation.controller;
 
 import com.enaya.product_service.application.dto.request.CreateCategoryRequest;
+import com.enaya.product_service.application.dto.request.MoveCategoryRequest;
 import com.enaya.product_service.application.dto.request.UpdateCategoryRequest;
 import com.enaya.product_service.application.dto.response.CategoryResponse;
 import com.enaya.product_service.application.dto.response.CategoryTreeResponse;
@@ -77,6 +78,17 @@ public class CategoryController {
         return ResponseEntity.ok(categoryApplicationService.updateCategory(id, request));
     }
 
+    @PutMapping("/{id}/move")
+    public ResponseEntity<CategoryResponse> moveCategory(
+            @PathVariable UUID id,
+            @Valid @RequestBody MoveCategoryRequest request,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(categoryApplicationService.moveCategory(id, request));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCategory(
             @PathVariable UUID id,
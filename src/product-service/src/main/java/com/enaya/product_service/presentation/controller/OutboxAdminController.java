@@ -0,0 +1,88 @@
+package com.enaya.product_service.presentation.controller;
+
+import com.enaya.product_service.application.dto.request.ReplayDeadEventsRequest;
+import com.enaya.product_service.application.dto.response.OutboxEventResponse;
+import com.enaya.product_service.infrastructure.persistence.outbox.OutboxEvent;
+import com.enaya.product_service.infrastructure.persistence.outbox.OutboxReplayService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/outbox")
+@RequiredArgsConstructor
+public class OutboxAdminController {
+
+    private final OutboxReplayService outboxReplayService;
+
+    @GetMapping("/dead")
+    public ResponseEntity<Page<OutboxEventResponse>> getDeadEvents(
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String aggregateId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Getting dead outbox events - topic: {}, eventType: {}, aggregateId: {}", topic, eventType, aggregateId);
+        Page<OutboxEventResponse> response = outboxReplayService
+                .findDeadEvents(topic, eventType, aggregateId,
+                        PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "createdAt")))
+                .map(this::toResponse);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/dead/replay")
+    public ResponseEntity<Map<String, Integer>> replayDeadEvents(
+            @Valid @RequestBody ReplayDeadEventsRequest request,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Replaying dead outbox events: {}", request);
+        int replayed = outboxReplayService.replay(
+                request.getTopic(), request.getEventType(), request.getAggregateId(), request.getLimit());
+        return ResponseEntity.accepted().body(Map.of("replayed", replayed));
+    }
+
+    @PostMapping("/dead/{eventId}/replay")
+    public ResponseEntity<Void> replayDeadEvent(
+            @PathVariable UUID eventId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Replaying dead outbox event: {}", eventId);
+        return outboxReplayService.replayOne(eventId)
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private OutboxEventResponse toResponse(OutboxEvent event) {
+        return OutboxEventResponse.builder()
+                .id(event.getId())
+                .eventType(event.getEventType())
+                .topic(event.getTopic())
+                .aggregateId(event.getAggregateId())
+                .aggregateType(event.getAggregateType())
+                .status(event.getStatus().name())
+                .retryCount(event.getRetryCount())
+                .lastError(event.getLastError())
+                .payloadSize(event.getPayload() != null ? event.getPayload().length : 0)
+                .createdAt(event.getCreatedAt())
+                .updatedAt(event.getUpdatedAt())
+                .build();
+    }
+}
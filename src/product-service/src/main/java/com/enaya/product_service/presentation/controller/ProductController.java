@@ -2,16 +2,27 @@ package com.enaya.product_service.presentation.controller;
 
 import com.enaya.product_service.application.dto.request.CreateProductRequest;
 import com.enaya.product_service.application.dto.request.UpdateProductRequest;
+import com.enaya.product_service.application.dto.response.ProductImportRowResult;
+import com.enaya.product_service.application.dto.response.ProductImportSummary;
 import com.enaya.product_service.application.dto.response.ProductResponse;
 import com.enaya.product_service.application.service.ProductApplicationService;
+import com.enaya.product_service.application.service.ProductImportApplicationService;
 import com.enaya.product_service.domain.model.product.ProductVariant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -20,7 +31,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProductApplicationService productApplicationService;
+    private final ProductImportApplicationService productImportApplicationService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<ProductResponse> createProduct(
@@ -35,6 +50,57 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Import en masse (NDJSON ou text/csv). La réponse NDJSON est écrite au fil de l'eau : une ligne par
+     * ligne importée, envoyée à la fin de chaque lot, puis une ligne {"summary": ...}.
+     */
+    @PostMapping(value = "/import", consumes = {NDJSON, "text/csv"}, produces = NDJSON)
+    public void importProducts(
+            @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        ProductImportApplicationService.Format format = contentType.startsWith("text/csv")
+                ? ProductImportApplicationService.Format.CSV
+                : ProductImportApplicationService.Format.NDJSON;
+        log.info("Starting bulk product import ({})", format);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+        ProductImportSummary summary = productImportApplicationService.importProducts(request.getInputStream(), format,
+                new ProductImportApplicationService.RowListener() {
+                    @Override
+                    public void onRow(ProductImportRowResult result) {
+                        writeLine(out, result);
+                    }
+
+                    @Override
+                    public void onChunkCompleted() {
+                        try {
+                            out.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+        writeLine(out, Map.of("summary", summary));
+        out.flush();
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @PutMapping("/{productId}")
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable UUID productId,
@@ -58,6 +124,11 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{productId}/availability")
+    public ResponseEntity<Map<String, Object>> getProductAvailability(@PathVariable UUID productId) {
+        return ResponseEntity.ok(productApplicationService.getProductAvailability(productId));
+    }
+
     @GetMapping
     public ResponseEntity<Page<ProductResponse>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
@@ -67,6 +138,15 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/statistics")
+    public ResponseEntity<Map<String, Object>> getProductStatistics(
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(productApplicationService.getProductStatistics());
+    }
+
     @GetMapping("/active")
     public ResponseEntity<Page<ProductResponse>> getActiveProducts(
             @RequestParam(defaultValue = "0") int page,
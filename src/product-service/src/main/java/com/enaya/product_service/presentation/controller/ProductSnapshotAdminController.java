@@ -0,0 +1,41 @@
+package com.enaya.product_service.presentation.controller;
+
+import com.enaya.product_service.infrastructure.messaging.snapshot.InMemoryProductSnapshotReadModel;
+import com.enaya.product_service.infrastructure.messaging.snapshot.ProductSnapshotReplayer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/product-snapshots")
+@RequiredArgsConstructor
+public class ProductSnapshotAdminController {
+
+    private final ProductSnapshotReplayer productSnapshotReplayer;
+
+    // Relit tout le topic dans un modèle en mémoire : permet de vérifier son contenu et la vitesse de bootstrap
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Replaying product snapshot topic");
+        InMemoryProductSnapshotReadModel readModel = new InMemoryProductSnapshotReadModel();
+        ProductSnapshotReplayer.ReplayResult result = productSnapshotReplayer.replay(readModel);
+        // Des enregistrements illisibles rendent le modèle incomplet : la relecture est signalée en échec
+        return ResponseEntity.status(result.complete() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "records", result.records(),
+                "tombstones", result.tombstones(),
+                "errors", result.errors(),
+                "errorSamples", result.errorSamples(),
+                "products", readModel.size(),
+                "durationMs", result.durationMs()
+        ));
+    }
+}
@@ -0,0 +1,40 @@
+package com.enaya.product_service.presentation.controller;
+
+import com.enaya.product_service.infrastructure.persistence.projection.SkuExistenceIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/sku-filter")
+@RequiredArgsConstructor
+public class SkuFilterAdminController {
+
+    private final SkuExistenceIndex skuExistenceIndex;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> stats(
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(skuExistenceIndex.stats());
+    }
+
+    // Reconstruit les filtres depuis la base : purge les SKU supprimés et prend les insertions des autres instances
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild(
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        if (userRole == null || !userRole.equals("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Rebuilding SKU bloom filters");
+        skuExistenceIndex.build();
+        return ResponseEntity.ok(skuExistenceIndex.stats());
+    }
+}
@@ -0,0 +1,155 @@
+package com.enaya.product_service.infrastructure.messaging.codec;
+
+import com.enaya.product_service.domain.event.category.CategoryCreated;
+import com.enaya.product_service.domain.event.category.CategoryHierarchyChanged;
+import com.enaya.product_service.domain.event.category.CategoryUpdated;
+import com.enaya.product_service.domain.event.collection.CollectionArchived;
+import com.enaya.product_service.domain.event.collection.CollectionProductAdded;
+import com.enaya.product_service.domain.event.collection.CollectionProductRemoved;
+import com.enaya.product_service.domain.event.collection.CollectionPublished;
+import com.enaya.product_service.domain.event.collection.CollectionUpdated;
+import com.enaya.product_service.domain.event.external.ProductOutOfStockEvent;
+import com.enaya.product_service.domain.event.product.ProductCreated;
+import com.enaya.product_service.domain.event.product.ProductDeleted;
+import com.enaya.product_service.domain.event.product.ProductPriceChanged;
+import com.enaya.product_service.domain.event.product.ProductUpdated;
+import com.enaya.product_service.domain.event.product.StockUpdateEvent;
+import com.enaya.product_service.domain.model.product.valueobjects.ProductAttribute;
+import com.enaya.product_service.domain.model.product.valueobjects.ProductImage;
+import com.enaya.product_service.infrastructure.messaging.snapshot.ProductSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPayloadCodecTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 17, 10, 30, 15, 123_456_789);
+
+    static Stream<Arguments> publishedEvents() {
+        List<Object> events = publishedEventInstances();
+        return Stream.of("json", "smile")
+                .flatMap(codec -> events.stream().map(event ->
+                        Arguments.of(codec, event.getClass().getSimpleName(), event)));
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("publishedEvents")
+    void roundTripsEveryPublishedEvent(String codecType, String eventType, Object event) {
+        EventPayloadCodec codec = codec(codecType, 0);
+
+        Object decoded = codec.decode(codec.encode(event), event.getClass());
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecTypes")
+    void roundTripsDeflatedPayload(String codecType) {
+        EventPayloadCodec codec = codec(codecType, 256);
+        ProductCreated event = productCreated(40);
+
+        byte[] payload = codec.encode(event);
+
+        assertThat(codec.readHeader(payload).compressed()).isTrue();
+        assertThat(codec.decode(payload, ProductCreated.class)).isEqualTo(event);
+    }
+
+    @Test
+    void decodesPayloadWrittenByAnotherCodec() {
+        ProductCreated event = productCreated(3);
+        byte[] smilePayload = codec("smile", 0).encode(event);
+
+        assertThat(codec("json", 0).decode(smilePayload, ProductCreated.class)).isEqualTo(event);
+    }
+
+    @Test
+    void decodesLegacyJsonWithoutHeader() {
+        byte[] legacy = """
+                {"productId":"6f1c2a52-3e0b-4f7e-9d55-1f0c8a3b9e21","deletedAt":"2024-05-17T10:30:15"}
+                """.getBytes();
+
+        ProductDeleted decoded = codec("smile", 0).decode(legacy, ProductDeleted.class);
+
+        assertThat(decoded.productId()).isEqualTo(UUID.fromString("6f1c2a52-3e0b-4f7e-9d55-1f0c8a3b9e21"));
+        assertThat(decoded.deletedAt()).isEqualTo(LocalDateTime.of(2024, 5, 17, 10, 30, 15));
+    }
+
+    static Stream<String> codecTypes() {
+        return Stream.of("json", "smile");
+    }
+
+    private static EventPayloadCodec codec(String type, int compressionThreshold) {
+        return new EventPayloadCodec(List.of(new JsonEventCodec(), new SmileEventCodec()), type, compressionThreshold);
+    }
+
+    private static List<Object> publishedEventInstances() {
+        UUID productId = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
+        UUID collectionId = UUID.randomUUID();
+        ProductCreated created = productCreated(3);
+
+        ProductOutOfStockEvent outOfStock = new ProductOutOfStockEvent();
+        outOfStock.setStockItemId("stock-42");
+        outOfStock.setProductId(productId.toString());
+        outOfStock.setVariant(UUID.randomUUID().toString());
+        outOfStock.setTimestamp(NOW);
+
+        List<Object> events = new ArrayList<>();
+        events.add(created);
+        events.add(ProductUpdated.of(productId, "Bague Solène", "Or jaune 18 carats", new BigDecimal("1290.00"), "EUR",
+                categoryId, NOW, "RING-SOL-001", false, List.of(collectionId),
+                List.of(ProductAttribute.of("metal", "or jaune")), List.of(), 4L));
+        events.add(ProductDeleted.of(productId, NOW));
+        events.add(ProductPriceChanged.of(productId, new BigDecimal("1290.00"), new BigDecimal("1190.50"), "EUR", NOW));
+        events.add(new StockUpdateEvent(productId, UUID.randomUUID(), "OUT_OF_STOCK", NOW));
+        events.add(new ProductSnapshot(created.productId(), created.sku(), created.name(), created.description(),
+                created.price(), created.currency(), created.categoryId(), created.collectionIds(),
+                Map.of("attribute-0", "valeur répétée numéro 0"), created.active(), true, created.version(),
+                created.createdAt()));
+        events.add(new CategoryCreated(categoryId, "Bagues"));
+        events.add(new CategoryUpdated(categoryId, "Bagues & alliances"));
+        events.add(new CategoryHierarchyChanged(categoryId, null, UUID.randomUUID(), "/bagues", "/bijoux/bagues"));
+        events.add(new CollectionUpdated(collectionId, "Printemps"));
+        events.add(new CollectionPublished(collectionId, "Printemps"));
+        events.add(CollectionArchived.from(collectionId));
+        events.add(new CollectionProductAdded(collectionId, productId, true));
+        events.add(new CollectionProductRemoved(collectionId, productId, true));
+        events.add(outOfStock);
+        return events;
+    }
+
+    private static ProductCreated productCreated(int attributeCount) {
+        List<ProductAttribute> attributes = IntStream.range(0, attributeCount)
+                .mapToObj(i -> ProductAttribute.of("attribute-" + i, "valeur répétée numéro " + i,
+                        ProductAttribute.AttributeType.STRING))
+                .toList();
+        return ProductCreated.of(
+                UUID.randomUUID(),
+                "Collier Perle",
+                "Perles de culture, fermoir en argent",
+                new BigDecimal("249.90"),
+                "EUR",
+                UUID.randomUUID(),
+                NOW,
+                "NECK-PRL-001",
+                true,
+                List.of(UUID.randomUUID(), UUID.randomUUID()),
+                attributes,
+                List.of(ProductImage.of("https://cdn.enaya.test/collier.jpg", "Collier perle", 0),
+                        ProductImage.of("https://cdn.enaya.test/collier-zoom.jpg", "Détail du fermoir", 1)),
+                1L
+        );
+    }
+}
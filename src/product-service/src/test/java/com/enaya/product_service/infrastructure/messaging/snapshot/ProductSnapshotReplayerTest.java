@@ -0,0 +1,113 @@
+package com.enaya.product_service.infrastructure.messaging.snapshot;
+
+import com.enaya.product_service.infrastructure.messaging.codec.EventPayloadCodec;
+import com.enaya.product_service.infrastructure.messaging.codec.JsonEventCodec;
+import com.enaya.product_service.infrastructure.messaging.codec.SmileEventCodec;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSnapshotReplayerTest {
+
+    private static final String TOPIC = "product-snapshots";
+    private static final TopicPartition PARTITION_0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition(TOPIC, 1);
+
+    private final EventPayloadCodec codec =
+            new EventPayloadCodec(List.of(new JsonEventCodec(), new SmileEventCodec()), "smile", 0);
+    private final ProductSnapshotReplayer replayer = new ProductSnapshotReplayer(codec);
+
+    private MockConsumer<String, byte[]> consumer;
+    private InMemoryProductSnapshotReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(TOPIC, List.of(
+                new PartitionInfo(TOPIC, 0, null, null, null),
+                new PartitionInfo(TOPIC, 1, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION_0, 0L, PARTITION_1, 0L));
+        readModel = new InMemoryProductSnapshotReadModel();
+    }
+
+    @Test
+    void appliesUpsertsAndTombstonesUpToTheEndOffsets() {
+        UUID kept = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 4L, PARTITION_1, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, kept, codec.encode(snapshot(kept, "Bague Solène", 1L))));
+            consumer.addRecord(record(1, deleted, codec.encode(snapshot(deleted, "Collier Perle", 1L))));
+            consumer.addRecord(record(2, deleted, null));
+            consumer.addRecord(record(3, kept, codec.encode(snapshot(kept, "Bague Solène or rose", 2L))));
+        });
+
+        ProductSnapshotReplayer.ReplayResult result = replayer.replay(consumer, TOPIC, readModel);
+
+        assertThat(result.records()).isEqualTo(4);
+        assertThat(result.tombstones()).isEqualTo(1);
+        assertThat(result.errors()).isZero();
+        assertThat(result.complete()).isTrue();
+        assertThat(readModel.size()).isEqualTo(1);
+        assertThat(readModel.get(deleted)).isEmpty();
+        assertThat(readModel.get(kept)).get()
+                .satisfies(snapshot -> {
+                    assertThat(snapshot.name()).isEqualTo("Bague Solène or rose");
+                    assertThat(snapshot.version()).isEqualTo(2L);
+                    assertThat(snapshot.attributes()).containsEntry("metal", "or rose");
+                });
+    }
+
+    @Test
+    void reportsUnreadableRecordsAsErrors() {
+        UUID productId = UUID.randomUUID();
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 2L, PARTITION_1, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, productId, codec.encode(snapshot(productId, "Bague Solène", 1L))));
+            consumer.addRecord(record(1, UUID.randomUUID(), "{not a snapshot".getBytes(StandardCharsets.UTF_8)));
+        });
+
+        ProductSnapshotReplayer.ReplayResult result = replayer.replay(consumer, TOPIC, readModel);
+
+        assertThat(result.records()).isEqualTo(2);
+        assertThat(result.errors()).isEqualTo(1);
+        assertThat(result.complete()).isFalse();
+        assertThat(result.errorSamples()).singleElement().asString().startsWith(TOPIC + "-0@1");
+        assertThat(readModel.size()).isEqualTo(1);
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset, UUID productId, byte[] value) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, productId.toString(), value);
+    }
+
+    private static ProductSnapshot snapshot(UUID productId, String name, long version) {
+        return new ProductSnapshot(
+                productId,
+                "SKU-" + version,
+                name,
+                "Or 18 carats",
+                new BigDecimal("1290.00"),
+                "EUR",
+                UUID.randomUUID(),
+                List.of(UUID.randomUUID()),
+                Map.of("metal", version > 1 ? "or rose" : "or jaune"),
+                true,
+                true,
+                version,
+                LocalDateTime.of(2024, 5, 17, 10, 30, 15)
+        );
+    }
+}
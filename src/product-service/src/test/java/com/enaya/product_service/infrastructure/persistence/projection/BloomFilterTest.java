@@ -0,0 +1,80 @@
+package com.enaya.product_service.infrastructure.persistence.projection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void neverReportsAnInsertedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        IntStream.range(0, INSERTIONS).forEach(i -> filter.put(sku(i)));
+
+        assertThat(IntStream.range(0, INSERTIONS).filter(i -> !filter.mightContain(sku(i))).count()).isZero();
+    }
+
+    @Test
+    void keepsEveryValueInsertedConcurrently() throws Exception {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = offset; i < INSERTIONS; i += threads) {
+                        filter.put(sku(i));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(IntStream.range(0, INSERTIONS).filter(i -> !filter.mightContain(sku(i))).count()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.01, 0.001})
+    void falsePositiveRateStaysNearTheConfiguredValue(double falsePositiveRate) {
+        BloomFilter filter = new BloomFilter(INSERTIONS, falsePositiveRate);
+        IntStream.range(0, INSERTIONS).forEach(i -> filter.put(sku(i)));
+
+        long falsePositives = IntStream.range(0, PROBES)
+                .filter(i -> filter.mightContain("ABSENT-" + i))
+                .count();
+        double observed = (double) falsePositives / PROBES;
+
+        assertThat(observed).isBetween(falsePositiveRate * 0.5, falsePositiveRate * 1.5);
+        assertThat(filter.estimatedFalsePositiveRate()).isBetween(falsePositiveRate * 0.5, falsePositiveRate * 1.5);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+
+        assertThat(IntStream.range(0, 1_000).anyMatch(i -> filter.mightContain(sku(i)))).isFalse();
+        assertThat(filter.estimatedFalsePositiveRate()).isZero();
+    }
+
+    private static String sku(int i) {
+        return String.format("RING-%06d", i);
+    }
+}